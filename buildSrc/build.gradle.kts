@@ -13,6 +13,7 @@ dependencies {
     implementation(libs.spotbugs)
     implementation(libs.spotless)
     implementation(libs.dependency.analysis)
+    implementation(libs.jmh.plugin)
 
     // https://github.com/gradle/gradle/issues/15383
     implementation(files(libs.javaClass.superclass.protectionDomain.codeSource.location))
@@ -0,0 +1,33 @@
+import org.gradle.accessors.dm.LibrariesForLibs
+
+plugins {
+    id("flux.java-conventions")
+    id("me.champeau.jmh")
+}
+
+// Workaround per: https://github.com/gradle/gradle/issues/15383
+val Project.libs get() = the<LibrariesForLibs>()
+
+/*
+ * Benchmarks
+ * ====================================================
+ *
+ * Benchmarks live in `src/jmh/java` and run with `./gradlew :<module>:jmh`.
+ * Results are written as JSON so they can be compared between releases.
+ */
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    failOnError = true
+
+    // Allow quick, narrowed runs, e.g. `-Pjmh.includes=CodeTokenizer -Pjmh.iterations=2`
+    providers.gradleProperty("jmh.includes").orNull?.let { includes = listOf(it) }
+    providers.gradleProperty("jmh.iterations").orNull?.let { iterations = it.toInt() }
+    providers.gradleProperty("jmh.fork").orNull?.let { fork = it.toInt() }
+}
+
+// Benchmarks are not a library and are not linted.
+tasks.matching { it.name == "spotbugsJmh" }.configureEach {
+    enabled = false
+}
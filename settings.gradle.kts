@@ -9,4 +9,7 @@ pluginManagement {
 rootProject.name = "flux"
 
 // Smithy Build Plugins
-include(":smithy-proofread")
\ No newline at end of file
+include(":smithy-proofread")
+
+// Benchmarks
+include(":smithy-proofread-benchmarks")
\ No newline at end of file
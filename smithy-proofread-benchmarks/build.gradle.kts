@@ -0,0 +1,11 @@
+plugins {
+    id("flux.benchmark-conventions")
+}
+
+description = "JMH benchmarks for the proofreading and spellchecking plugins"
+
+dependencies {
+    jmh(project(":smithy-proofread"))
+    jmh(testFixtures(project(":smithy-proofread")))
+    jmh(libs.langtool.en)
+}
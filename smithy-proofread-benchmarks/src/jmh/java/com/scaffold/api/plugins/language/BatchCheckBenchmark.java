@@ -0,0 +1,83 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.smithy.model.knowledge.TextIndex;
+import software.amazon.smithy.model.knowledge.TextInstance;
+
+/**
+ * Spellchecking the short texts of a model one at a time, compared to in batches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BatchCheckBenchmark {
+    @Param({"16", "64", "256"})
+    public int batchSize;
+
+    private List<String> texts;
+    private LanguageToolPool.Lease spelling;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var model = SyntheticModel.builder()
+                .shapeCount(200)
+                .docstringWords(8)
+                .typoRate(0.02)
+                .build()
+                .assemble();
+        texts = TextIndex.of(model)
+                .getTextInstances()
+                .stream()
+                .map(TextInstance::getText)
+                .filter(text -> text.length() <= 200)
+                .toList();
+        spelling = LanguageToolPool.shared().acquire(ToolSpec.spelling("en", List.of()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        spelling.close();
+    }
+
+    @Benchmark
+    public List<List<TextMatch>> perText() {
+        List<List<TextMatch>> matches = new ArrayList<>(texts.size());
+        for (var text : texts) {
+            matches.add(LanguageCheckingUtils.getTextMatches(spelling.tool(), text, Suggestions.NONE));
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public List<List<TextMatch>> batched() {
+        List<List<TextMatch>> matches = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i += batchSize) {
+            var batch = texts.subList(i, Math.min(texts.size(), i + batchSize));
+            matches.addAll(LanguageCheckingUtils.getBatchTextMatches(
+                    spelling.tool(), batch, Suggestions.NONE, Metrics.NONE));
+        }
+        return matches;
+    }
+}
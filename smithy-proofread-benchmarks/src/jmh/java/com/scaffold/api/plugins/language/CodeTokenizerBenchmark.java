@@ -0,0 +1,53 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodeTokenizerBenchmark {
+    private static final List<String> IDENTIFIERS = List.of(
+            "HTTPServerID",
+            "member_abot",
+            "ThingSpelingStuff",
+            "com.example.my.namespace",
+            "getHTTPResponseCode",
+            "SCREAMING_SNAKE_CASE",
+            "kebab-case-name",
+            "DescribeWidgetConfigurationResponse");
+    private static final String DOCSTRING = "The unique identifier of the resource. See "
+            + "https://example.com/docs/WidgetConfig for details, or contact support@example.com "
+            + "when the maxResults value is exceeded by a ListWidgets call.";
+
+    private final CodeTokenizer tokenizer = new CodeTokenizer();
+
+    @Benchmark
+    public void identifiers(Blackhole blackhole) {
+        for (var identifier : IDENTIFIERS) {
+            blackhole.consume(tokenizer.tokenize(identifier));
+        }
+    }
+
+    @Benchmark
+    public List<String> docstring() {
+        return tokenizer.tokenize(DOCSTRING);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.languagetool.markup.AnnotatedText;
+import org.languagetool.rules.RuleMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LanguageCheckingBenchmark {
+    @Param({"20", "200"})
+    public int docstringWords;
+
+    @Param({"0.0", "0.2"})
+    public double htmlDensity;
+
+    private String docstring;
+    private LanguageToolPool.Lease spelling;
+    private LanguageToolPool.Lease grammar;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var idl = SyntheticModel.builder()
+                .shapeCount(1)
+                .docstringWords(docstringWords)
+                .htmlDensity(htmlDensity)
+                .typoRate(0.02)
+                .build()
+                .toIdl();
+        // First docstring of the generated model, without the comment markers.
+        var start = idl.indexOf("/// ");
+        var end = idl.indexOf("structure ", start);
+        docstring = idl.substring(start, end).replace("/// ", "").trim();
+        spelling = LanguageToolPool.shared().acquire(ToolSpec.spelling("en", List.of()));
+        grammar = LanguageToolPool.shared().acquire(ToolSpec.grammar("en"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        spelling.close();
+        grammar.close();
+    }
+
+    @Benchmark
+    public AnnotatedText annotateText() {
+        return LanguageCheckingUtils.annotateText(docstring);
+    }
+
+    @Benchmark
+    public List<RuleMatch> spellingMatches() {
+        return LanguageCheckingUtils.getMatches(spelling.tool(), docstring);
+    }
+
+    @Benchmark
+    public List<RuleMatch> grammarMatches() {
+        return LanguageCheckingUtils.getMatches(grammar.tool(), docstring);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.languagetool.JLanguageTool;
+import org.languagetool.rules.RuleMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of each {@code Proofread} rule profile, both to create a tool and to check a docstring.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RuleProfileBenchmark {
+    @Param({"fast", "default", "strict"})
+    public String profile;
+
+    private RuleSelection rules;
+    private String docstring;
+    private LanguageToolPool.Lease grammar;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        rules = new RuleSelection(RuleSelection.Profile.of(profile), List.of(), List.of(), List.of(), List.of());
+        var idl = SyntheticModel.builder()
+                .shapeCount(1)
+                .docstringWords(200)
+                .typoRate(0.02)
+                .build()
+                .toIdl();
+        // First docstring of the generated model, without the comment markers.
+        var start = idl.indexOf("/// ");
+        var end = idl.indexOf("structure ", start);
+        docstring = idl.substring(start, end).replace("/// ", "").trim();
+        grammar = LanguageToolPool.shared().acquire(ToolSpec.grammar("en", rules));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        grammar.close();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public JLanguageTool createTool() {
+        // A new language each time, so its rules are loaded again.
+        return ToolSpec.grammar("en", rules).create(new CodingEnglish(rules));
+    }
+
+    @Benchmark
+    public List<RuleMatch> checkDocstring() {
+        return LanguageCheckingUtils.getMatches(grammar.tool(), docstring);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.validation.ValidationEvent;
+
+/**
+ * Cold start costs. Each measurement runs once in a fresh JVM, so results include
+ * class loading and dictionary and rule loading.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class StartupBenchmark {
+    private static final String SMALL_MODEL = """
+            $version: "2"
+
+            namespace com.example
+
+            /// A small structure.
+            structure Small {
+                name: String
+            }
+            """;
+
+    @Benchmark
+    public JLanguageTool spellingTool() {
+        var spec = ToolSpec.spelling("en", List.of());
+        return spec.create(LanguageToolPool.loadLanguage(spec));
+    }
+
+    @Benchmark
+    public JLanguageTool spellingToolWithAllRules() {
+        // How spelling tools were built before they got a language without grammar rules.
+        return ToolSpec.spelling("en", List.of()).create(loadLanguage());
+    }
+
+    @Benchmark
+    public JLanguageTool grammarTool() {
+        return ToolSpec.grammar("en").create(loadLanguage());
+    }
+
+    @Benchmark
+    public List<ValidationEvent> spellCheckFirstValidation() {
+        var model = Model.assembler().addUnparsedModel("small.smithy", SMALL_MODEL).assemble().unwrap();
+        return new SpellCheckValidator.Provider().createValidator(Node.objectNode()).validate(model);
+    }
+
+    @Benchmark
+    public List<ValidationEvent> proofreadFirstValidation() {
+        var model = Model.assembler().addUnparsedModel("small.smithy", SMALL_MODEL).assemble().unwrap();
+        return new ProofreadValidator.Provider().createValidator(Node.objectNode()).validate(model);
+    }
+
+    private static Language loadLanguage() {
+        return LanguageService.load("en", StartupBenchmark.class.getClassLoader());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares checking misspelled identifiers with and without computing suggestions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SuggestionBenchmark {
+    private static final List<String> MISSPELLED = List.of(
+            "ThingSpelingStuff",
+            "member_abot",
+            "DescribeWidgteConfiguration",
+            "xylophonicallyMisspeledIdentifer");
+
+    @Param({"0", "4"})
+    public int limit;
+
+    @Param({"0", "1", "2"})
+    public int maxEditDistance;
+
+    private LanguageToolPool.Lease spelling;
+    private List<TextMatch> matches;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        spelling = LanguageToolPool.shared().acquire(ToolSpec.spelling("en", List.of()));
+        matches = LanguageCheckingUtils.getTextMatches(
+                spelling.tool(),
+                MISSPELLED.get(0),
+                new Suggestions(4, 0, Duration.ZERO));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        spelling.close();
+    }
+
+    /**
+     * Finds misspellings and computes up to {@code limit} suggestions for each, without cached suggestions.
+     */
+    @Benchmark
+    public int checkAndSuggest() {
+        var suggestions = new Suggestions(limit, maxEditDistance, Duration.ZERO);
+        int count = 0;
+        for (var identifier : MISSPELLED) {
+            count += LanguageCheckingUtils.getTextMatches(spelling.tool(), identifier, suggestions).size();
+        }
+        return count;
+    }
+
+    /**
+     * Formats already computed suggestions into corrected identifiers.
+     */
+    @Benchmark
+    public List<String> formatSuggestions() {
+        return SpellCheckValidator.computeSuggestions(MISSPELLED.get(0), matches.get(0), limit);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.validation.ValidationEvent;
+import software.amazon.smithy.model.validation.Validator;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class ValidatorBenchmark {
+    @Param({"100", "1000"})
+    public int shapeCount;
+
+    @Param({"20"})
+    public int docstringWords;
+
+    @Param({"0.05"})
+    public double htmlDensity;
+
+    @Param({"0.01"})
+    public double typoRate;
+
+    private Model model;
+    private Validator spellCheck;
+    private Validator proofread;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        model = SyntheticModel.builder()
+                .shapeCount(shapeCount)
+                .docstringWords(docstringWords)
+                .htmlDensity(htmlDensity)
+                .typoRate(typoRate)
+                .build()
+                .assemble();
+        spellCheck = new SpellCheckValidator.Provider().createValidator(Node.objectNode());
+        proofread = new ProofreadValidator.Provider().createValidator(Node.objectNode());
+    }
+
+    @Benchmark
+    public List<ValidationEvent> spellCheck() {
+        return spellCheck.validate(model);
+    }
+
+    @Benchmark
+    public List<ValidationEvent> proofread() {
+        return proofread.validate(model);
+    }
+}
@@ -1,5 +1,7 @@
 plugins {
     id("flux.module-conventions")
+    id("flux.integ-test-conventions")
+    `java-test-fixtures`
     alias(libs.plugins.shadow)
 }
 
@@ -13,6 +15,9 @@ dependencies {
 
     // TODO: build a shaded for french, spanish, german, polish etc.
     implementation(libs.langtool.en)
+
+    // Synthetic model generation shared by benchmarks and scalability tests
+    testFixturesApi(libs.smithy.model)
 }
 
 tasks {
@@ -26,6 +31,43 @@ tasks {
     jar {
         finalizedBy(shadowJar)
     }
+
+    // Scalability suite over synthetic models, e.g. `./gradlew :smithy-proofread:integ -Pscalability.sizes=1000,10000`.
+    // Timings and retained heap are written to build/reports/scalability so they can be kept as CI artifacts.
+    named<Test>("integ") {
+        description = "Checks that validation time and retained heap scale near-linearly with model size."
+        group = "verification"
+        val reports = layout.buildDirectory.dir("reports/scalability")
+        outputs.dir(reports)
+        outputs.upToDateWhen { false }
+        maxHeapSize = "6g"
+        systemProperty("flux.scalability.reportDir", reports.get().asFile.absolutePath)
+        systemProperty("flux.scalability.sizes",
+            providers.gradleProperty("scalability.sizes").getOrElse("1000,10000,100000"))
+        systemProperty("flux.scalability.timeTolerance",
+            providers.gradleProperty("scalability.timeTolerance").getOrElse("2.5"))
+        systemProperty("flux.scalability.heapTolerance",
+            providers.gradleProperty("scalability.heapTolerance").getOrElse("2.0"))
+        systemProperty("flux.scalability.revision",
+            providers.environmentVariable("GITHUB_SHA").getOrElse("local"))
+    }
+
+    // Optional AppCDS archive of the classes loaded when validating a model, for faster
+    // startup of short-lived CLI runs. Only usable with the same JDK and shadow jar path.
+    register<JavaExec>("cdsArchive") {
+        description = "Creates a class data sharing archive from a training run of both linters."
+        group = "build"
+        val archive = layout.buildDirectory.file("cds/smithy-proofread.jsa")
+        classpath = files(shadowJar)
+        mainClass.set("com.scaffold.api.plugins.language.Warmup")
+        outputs.file(archive)
+        jvmArgumentProviders.add(CommandLineArgumentProvider {
+            listOf("-XX:ArchiveClassesAtExit=${archive.get().asFile.absolutePath}")
+        })
+        doFirst {
+            archive.get().asFile.parentFile.mkdirs()
+        }
+    }
 }
 
 configurePublishing {
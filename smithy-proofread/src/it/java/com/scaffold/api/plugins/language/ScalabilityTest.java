@@ -0,0 +1,181 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.validation.ValidationEvent;
+import software.amazon.smithy.model.validation.Validator;
+
+/**
+ * Validates synthetic models of increasing size, and checks that the time per
+ * shape and the heap retained per shape stay within a tolerance of the previous
+ * size. A quadratic regression multiplies the time per shape by the ratio
+ * between sizes, ten by default, so it fails well within the tolerance.
+ * <p>
+ * Sizes, tolerances and the report directory are set by the {@code integ} task.
+ * Every measurement is written to the report before any check fails.
+ */
+class ScalabilityTest {
+    private static final int WARM_UP_SHAPES = 200;
+    // Retained heap below this is dominated by noise, so smaller measurements are rounded up to it.
+    private static final long HEAP_FLOOR_BYTES = 8L * 1024 * 1024;
+
+    private static final List<Integer> SIZES = Arrays.stream(
+            System.getProperty("flux.scalability.sizes", "1000,10000").split(","))
+            .map(String::trim)
+            .map(Integer::parseInt)
+            .sorted()
+            .toList();
+    private static final double TIME_TOLERANCE = Double.parseDouble(
+            System.getProperty("flux.scalability.timeTolerance", "2.5"));
+    private static final double HEAP_TOLERANCE = Double.parseDouble(
+            System.getProperty("flux.scalability.heapTolerance", "2.0"));
+    private static final Path REPORT_DIR = Path.of(
+            System.getProperty("flux.scalability.reportDir", "build/reports/scalability"));
+    private static final String REVISION = System.getProperty("flux.scalability.revision", "local");
+
+    private record Sample(int shapes, long millis, long retainedBytes, int events) {
+        double millisPerShape() {
+            return (double) millis / shapes;
+        }
+
+        Node toNode() {
+            return Node.objectNode()
+                    .withMember("shapes", shapes)
+                    .withMember("millis", millis)
+                    .withMember("retainedBytes", retainedBytes)
+                    .withMember("events", events);
+        }
+    }
+
+    @Test
+    void spellCheckScalesLinearly() throws IOException {
+        checkScaling("SpellCheck", SpellCheckValidator::create);
+    }
+
+    @Test
+    void proofreadScalesLinearly() throws IOException {
+        checkScaling("Proofread", ProofreadValidator::create);
+    }
+
+    private static void checkScaling(String name, Function<ObjectNode, Validator> factory) throws IOException {
+        var configuration = Node.objectNode()
+                .withMember("parallelism", Runtime.getRuntime().availableProcessors());
+        var validator = factory.apply(configuration);
+        // Create and warm up the language tools, so that they are not part of the first measurement.
+        validator.validate(model(WARM_UP_SHAPES));
+
+        List<Sample> samples = new ArrayList<>();
+        for (var size : SIZES) {
+            samples.add(measure(validator, size));
+        }
+        report(name, samples);
+
+        for (int i = 1; i < samples.size(); i++) {
+            var previous = samples.get(i - 1);
+            var current = samples.get(i);
+            var scale = (double) current.shapes() / previous.shapes();
+            assertThat(name + " time per shape at " + current.shapes() + " shapes",
+                    current.millisPerShape(),
+                    lessThanOrEqualTo(Math.max(previous.millisPerShape(), 0.01) * TIME_TOLERANCE));
+            assertThat(name + " retained heap at " + current.shapes() + " shapes",
+                    (double) current.retainedBytes(),
+                    lessThanOrEqualTo(Math.max(previous.retainedBytes(), HEAP_FLOOR_BYTES) * scale * HEAP_TOLERANCE));
+        }
+    }
+
+    private static Sample measure(Validator validator, int shapes) {
+        var model = model(shapes);
+        var before = usedHeapAfterGc();
+        var start = System.nanoTime();
+        List<ValidationEvent> events = validator.validate(model);
+        var millis = (System.nanoTime() - start) / 1_000_000;
+        var retained = usedHeapAfterGc() - before;
+        // Keep the model and events reachable until the heap is measured.
+        Reference.reachabilityFence(model);
+        Reference.reachabilityFence(events);
+        return new Sample(shapes, millis, Math.max(0, retained), events.size());
+    }
+
+    private static Model model(int shapes) {
+        return SyntheticModel.builder()
+                .shapeCount(shapes)
+                .docstringWords(20)
+                .typoRate(0.01)
+                .build()
+                .assemble();
+    }
+
+    private static long usedHeapAfterGc() {
+        var memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        // Collect until the used heap stops shrinking, since a single request may not collect everything.
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException exc) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            var current = memory.getHeapMemoryUsage().getUsed();
+            if (current >= used) {
+                break;
+            }
+            used = current;
+        }
+        return used;
+    }
+
+    // Writes this run as JSON, and appends it to a CSV history that survives between runs without a clean.
+    private static void report(String name, List<Sample> samples) throws IOException {
+        Files.createDirectories(REPORT_DIR);
+        var timestamp = Instant.now().toString();
+        var report = Node.objectNode()
+                .withMember("validator", name)
+                .withMember("revision", REVISION)
+                .withMember("timestamp", timestamp)
+                .withMember("javaVersion", System.getProperty("java.version"))
+                .withMember("processors", Runtime.getRuntime().availableProcessors())
+                .withMember("samples", Node.fromNodes(samples.stream().map(Sample::toNode).toList()));
+        Files.writeString(REPORT_DIR.resolve(name + ".json"), Node.prettyPrintJson(report), StandardCharsets.UTF_8);
+
+        var history = REPORT_DIR.resolve("history.csv");
+        StringBuilder rows = new StringBuilder();
+        if (!Files.exists(history)) {
+            rows.append("timestamp,revision,validator,shapes,millis,retainedBytes,events\n");
+        }
+        for (var sample : samples) {
+            rows.append(String.join(",",
+                    timestamp,
+                    REVISION,
+                    name,
+                    String.valueOf(sample.shapes()),
+                    String.valueOf(sample.millis()),
+                    String.valueOf(sample.retainedBytes()),
+                    String.valueOf(sample.events()))).append('\n');
+        }
+        Files.writeString(history, rows, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import software.amazon.smithy.model.node.Node;
+
+/**
+ * Measures the time to create a spelling tool, and the heap it retains, over
+ * the spelling-only language and over the full language with every grammar
+ * rule loaded, and checks that the spelling-only language retains at least 10%
+ * less heap. Each figure is the median of several runs, since heap measured
+ * after a GC is noisy. Construction times vary too much between runs and
+ * machines to assert on, so they are only reported.
+ * <p>
+ * Measurements are written to {@code spelling-tool.json} in the report
+ * directory set by the {@code integ} task.
+ */
+class SpellingToolFootprintTest {
+    private static final int RUNS = 7;
+    // The spelling-only tool skips thousands of grammar rules, so it must save at least this share of the heap.
+    private static final double MAX_HEAP_RATIO = 0.9;
+    private static final String TEXT = "Gets the widget with the givn ID.";
+    private static final Path REPORT_DIR = Path.of(
+            System.getProperty("flux.scalability.reportDir", "build/reports/scalability"));
+    private static final String REVISION = System.getProperty("flux.scalability.revision", "local");
+
+    private record Sample(long millis, long retainedBytes) {
+        Node toNode() {
+            return Node.objectNode()
+                    .withMember("millis", millis)
+                    .withMember("retainedBytes", retainedBytes);
+        }
+    }
+
+    @Test
+    void spellingOnlyLanguageIsCheaper() throws IOException {
+        var spec = ToolSpec.spelling("en", List.of());
+        Supplier<Language> lean = () -> LanguageToolPool.loadLanguage(spec);
+        Supplier<Language> full = () -> LanguageService.load("en", getClass().getClassLoader());
+        // Load the classes and dictionaries both share, so that neither measurement includes them.
+        measure(spec, lean);
+        measure(spec, full);
+
+        var spellingOnly = median(spec, lean);
+        var allRules = median(spec, full);
+        Files.createDirectories(REPORT_DIR);
+        var report = Node.objectNode()
+                .withMember("revision", REVISION)
+                .withMember("timestamp", Instant.now().toString())
+                .withMember("javaVersion", System.getProperty("java.version"))
+                .withMember("spellingOnly", spellingOnly.toNode())
+                .withMember("allRules", allRules.toNode());
+        Files.writeString(REPORT_DIR.resolve("spelling-tool.json"), Node.prettyPrintJson(report),
+                StandardCharsets.UTF_8);
+
+        assertThat("retained heap", (double) spellingOnly.retainedBytes(),
+                lessThanOrEqualTo(allRules.retainedBytes() * MAX_HEAP_RATIO));
+    }
+
+    private static Sample median(ToolSpec spec, Supplier<Language> language) {
+        var samples = new Sample[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            samples[i] = measure(spec, language);
+        }
+        var millis = Arrays.stream(samples).mapToLong(Sample::millis).sorted().toArray();
+        var retained = Arrays.stream(samples).mapToLong(Sample::retainedBytes).sorted().toArray();
+        return new Sample(millis[RUNS / 2], retained[RUNS / 2]);
+    }
+
+    // A new language each time, so its rules are created and parsed again.
+    private static Sample measure(ToolSpec spec, Supplier<Language> language) {
+        var before = usedHeapAfterGc();
+        var start = System.nanoTime();
+        JLanguageTool tool = spec.create(language.get());
+        // Some resources, such as the disambiguator, are only loaded by the first check.
+        LanguageCheckingUtils.getMatches(tool, TEXT);
+        var millis = (System.nanoTime() - start) / 1_000_000;
+        var retained = usedHeapAfterGc() - before;
+        Reference.reachabilityFence(tool);
+        return new Sample(millis, Math.max(0, retained));
+    }
+
+    private static long usedHeapAfterGc() {
+        var memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException exc) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            var current = memory.getHeapMemoryUsage().getUsed();
+            if (current >= used) {
+                break;
+            }
+            used = current;
+        }
+        return used;
+    }
+}
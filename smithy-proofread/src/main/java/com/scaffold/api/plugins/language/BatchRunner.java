@@ -0,0 +1,481 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.SourceLocation;
+import software.amazon.smithy.model.loader.ModelAssembler;
+import software.amazon.smithy.model.node.ArrayNode;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.node.StringNode;
+import software.amazon.smithy.model.validation.Severity;
+import software.amazon.smithy.model.validation.ValidationEvent;
+import software.amazon.smithy.model.validation.Validator;
+import software.amazon.smithy.model.validation.ValidatorFactory;
+import software.amazon.smithy.utils.SmithyInternalApi;
+
+/**
+ * Proofreads many separate Smithy model packages in a single JVM.
+ * <p>
+ * Usage: {@code BatchRunner [--parallelism <n>] [--report <file>] [--config <file>] <directory>...}
+ * <p>
+ * A package is a directory holding a {@code smithy-build.json} file, and its
+ * models are the {@code sources} and {@code imports} listed there, or its
+ * {@code model} directory if there are none. A directory that holds no package
+ * is proofread as a single package of its own models. {@code build},
+ * {@code node_modules} and hidden directories are not searched.
+ * <p>
+ * Each package is assembled without running the core model validators, and with
+ * unknown traits allowed, since its dependencies are not on the classpath. The
+ * model is then validated with only the linters configured in its
+ * {@code validators} metadata, so that their {@code severity}, {@code id},
+ * {@code namespaces} and {@code selector}, along with {@code @suppress} traits
+ * and {@code suppressions} metadata, apply as they do in a Smithy build.
+ * Suppressed events are left out of the report. Relative paths in a linter
+ * configuration are resolved against the package directory. Packages that
+ * configure neither linter are proofread with the linters configured in the
+ * {@code --config} file, a JSON object with optional {@code SpellCheck} and
+ * {@code Proofread} members holding their configuration, whose relative paths
+ * are resolved against the directory of the file. Without a config file, both
+ * linters run with their default configuration.
+ * <p>
+ * Up to {@code --parallelism} packages, which defaults to the number of
+ * processors, are proofread at once. Linters with the same configuration are
+ * created once and shared by all packages, along with their LanguageTool
+ * instances and caches.
+ * <p>
+ * Each package is written to the report as one line of JSON as soon as it is
+ * done, followed by a summary line. The exit code is 1 if any package has a
+ * {@code DANGER} event or cannot be assembled, and 2 if the arguments are invalid.
+ */
+@SmithyInternalApi
+public final class BatchRunner {
+    private static final String SMITHY_BUILD = "smithy-build.json";
+    private static final Set<String> SKIPPED_DIRECTORIES = Set.of("build", "node_modules");
+    private static final Map<String, Function<ObjectNode, Validator>> LINTERS = Map.of(
+            "SpellCheck", SpellCheckValidator::create,
+            "Proofread", ProofreadValidator::create);
+    private static final List<String> PATH_MEMBERS = List.of("cacheDirectory", "metricsFile", "workerDirectory");
+    private static final List<String> PATH_LIST_MEMBERS = List.of("ignoreFiles", "dictionaries");
+
+    private final Map<LinterKey, Validator> linters = new ConcurrentHashMap<>();
+    private final ObjectNode defaults;
+
+    private record LinterKey(String name, ObjectNode configuration) {}
+
+    /**
+     * Models of a package.
+     *
+     * @param directory directory of the package.
+     * @param sources model files and directories to assemble.
+     */
+    record ModelPackage(Path directory, List<Path> sources) {}
+
+    /**
+     * Command line options.
+     *
+     * @param directories directories to search for packages.
+     * @param parallelism number of packages to proofread at once.
+     * @param report file to write the report to, or null to write it to standard output.
+     * @param config file configuring the linters of packages that configure none, or null.
+     */
+    record Options(List<Path> directories, int parallelism, Path report, Path config) {
+        static Options parse(String... args) {
+            List<Path> directories = new ArrayList<>();
+            int parallelism = Runtime.getRuntime().availableProcessors();
+            Path report = null;
+            Path config = null;
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--parallelism" -> parallelism = Integer.parseInt(value(args, ++i));
+                    case "--report" -> report = Path.of(value(args, ++i));
+                    case "--config" -> config = Path.of(value(args, ++i));
+                    default -> {
+                        if (args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option `" + args[i] + "`");
+                        }
+                        directories.add(Path.of(args[i]));
+                    }
+                }
+            }
+            if (directories.isEmpty()) {
+                throw new IllegalArgumentException("Expected at least one directory");
+            }
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("Expected a parallelism of at least 1");
+            }
+            return new Options(directories, parallelism, report, config);
+        }
+
+        private static String value(String[] args, int i) {
+            if (i >= args.length) {
+                throw new IllegalArgumentException("Expected a value after `" + args[i - 1] + "`");
+            }
+            return args[i];
+        }
+    }
+
+    BatchRunner(ObjectNode defaults) {
+        this.defaults = defaults;
+    }
+
+    public static void main(String[] args) {
+        Options options;
+        ObjectNode defaults;
+        try {
+            options = Options.parse(args);
+            defaults = options.config() == null
+                    ? Node.objectNode().withMember("SpellCheck", Node.objectNode())
+                            .withMember("Proofread", Node.objectNode())
+                    : readConfig(options.config());
+        } catch (RuntimeException | IOException exc) {
+            System.err.println(exc.getMessage());
+            System.err.println("Usage: BatchRunner [--parallelism <n>] [--report <file>] [--config <file>] "
+                    + "<directory>...");
+            System.exit(2);
+            return;
+        }
+        // Keep standard output for the report when no report file is given.
+        var console = options.report() == null ? System.err : System.out;
+        System.exit(new BatchRunner(defaults).run(options, console));
+    }
+
+    private static ObjectNode readConfig(Path file) throws IOException {
+        var config = Node.parse(Files.readString(file, StandardCharsets.UTF_8)).expectObjectNode();
+        var base = file.toAbsolutePath().getParent();
+        var resolved = Node.objectNode();
+        for (var member : config.getStringMap().entrySet()) {
+            resolved = resolved.withMember(member.getKey(), resolvePaths(member.getValue().expectObjectNode(), base));
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolve the relative paths of a linter configuration.
+     *
+     * @param configuration configuration of a linter.
+     * @param base directory to resolve relative paths against.
+     * @return configuration holding only absolute paths.
+     */
+    static ObjectNode resolvePaths(ObjectNode configuration, Path base) {
+        var resolved = configuration;
+        for (var member : PATH_MEMBERS) {
+            var value = configuration.getStringMember(member);
+            if (value.isPresent()) {
+                resolved = resolved.withMember(member, base.resolve(value.get().getValue()).toString());
+            }
+        }
+        for (var member : PATH_LIST_MEMBERS) {
+            var values = configuration.getArrayMember(member);
+            if (values.isPresent()) {
+                resolved = resolved.withMember(member, Node.fromStrings(values.get()
+                        .getElementsAs(StringNode.class)
+                        .stream()
+                        .map(value -> base.resolve(value.getValue()).toString())
+                        .toList()));
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Find and proofread every package.
+     *
+     * @param options directories to search, and how to run.
+     * @param console stream to print progress and the summary to.
+     * @return exit code.
+     */
+    int run(Options options, PrintStream console) {
+        List<ModelPackage> packages = new ArrayList<>();
+        for (var directory : options.directories()) {
+            packages.addAll(discover(directory));
+        }
+        console.println("Proofreading " + packages.size() + " model packages");
+        var start = System.nanoTime();
+        var danger = new AtomicInteger();
+        var failed = new AtomicInteger();
+        var events = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(options.parallelism(), r -> {
+            var thread = new Thread(r, "flux-batch-runner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (var report = openReport(options.report())) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (var modelPackage : packages) {
+                futures.add(executor.submit(() -> {
+                    var result = proofread(modelPackage);
+                    events.addAndGet(result.events().size());
+                    danger.addAndGet(result.danger());
+                    if (result.failed()) {
+                        failed.incrementAndGet();
+                    }
+                    write(report, result.toNode());
+                    console.println(result.summary());
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+            write(report, Node.objectNode().withMember("summary", Node.objectNode()
+                    .withMember("packages", packages.size())
+                    .withMember("failed", failed.get())
+                    .withMember("events", events.get())
+                    .withMember("danger", danger.get())
+                    .withMember("millis", (System.nanoTime() - start) / 1_000_000)));
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to write report", exc);
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while proofreading models", exc);
+        } catch (ExecutionException exc) {
+            throw new IllegalStateException("Unable to proofread models", exc.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        console.printf("Proofread %d model packages in %d ms: %d events, %d DANGER, %d failed%n",
+                packages.size(),
+                (System.nanoTime() - start) / 1_000_000,
+                events.get(),
+                danger.get(),
+                failed.get());
+        return danger.get() > 0 || failed.get() > 0 ? 1 : 0;
+    }
+
+    private static Writer openReport(Path file) throws IOException {
+        if (file == null) {
+            // Leave standard output open when the report is closed.
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+        var parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    private static void write(Writer report, Node line) {
+        synchronized (report) {
+            try {
+                report.write(Node.printJson(line));
+                report.write('\n');
+                report.flush();
+            } catch (IOException exc) {
+                throw new UncheckedIOException("Unable to write report", exc);
+            }
+        }
+    }
+
+    /**
+     * Find the packages in a directory.
+     *
+     * @param root directory to search.
+     * @return packages, sorted by directory.
+     */
+    static List<ModelPackage> discover(Path root) {
+        List<ModelPackage> packages = new ArrayList<>();
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    var name = dir.getFileName() == null ? "" : dir.getFileName().toString();
+                    if (!dir.equals(root) && (name.startsWith(".") || SKIPPED_DIRECTORIES.contains(name))) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    var config = dir.resolve(SMITHY_BUILD);
+                    if (Files.isRegularFile(config)) {
+                        packages.add(new ModelPackage(dir, sources(dir, config)));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to search `" + root + "` for models", exc);
+        }
+        if (packages.isEmpty()) {
+            packages.add(new ModelPackage(root, List.of(root)));
+        }
+        packages.sort((a, b) -> a.directory().compareTo(b.directory()));
+        return packages;
+    }
+
+    private static List<Path> sources(Path dir, Path config) {
+        ObjectNode node;
+        try {
+            node = Node.parse(Files.readString(config, StandardCharsets.UTF_8)).expectObjectNode();
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to read `" + config + "`", exc);
+        }
+        List<Path> sources = new ArrayList<>();
+        for (var member : List.of("sources", "imports")) {
+            node.getArrayMember(member).ifPresent(array -> {
+                for (var source : array.getElementsAs(StringNode.class)) {
+                    sources.add(dir.resolve(source.getValue()));
+                }
+            });
+        }
+        if (sources.isEmpty()) {
+            sources.add(dir.resolve("model"));
+        }
+        return sources;
+    }
+
+    private Result proofread(ModelPackage modelPackage) {
+        var start = System.nanoTime();
+        try {
+            return proofread(modelPackage, start);
+        } catch (RuntimeException exc) {
+            var error = ValidationEvent.builder()
+                    .id("BatchRunner")
+                    .severity(Severity.ERROR)
+                    .sourceLocation(SourceLocation.none())
+                    .message("Unable to proofread the model: " + exc)
+                    .build();
+            return new Result(modelPackage, 0, List.of(error), true, System.nanoTime() - start);
+        }
+    }
+
+    private Result proofread(ModelPackage modelPackage, long start) {
+        var loader = BatchRunner.class.getClassLoader();
+        var assembler = Model.assembler(loader)
+                .discoverModels(loader)
+                .disableValidation()
+                .putProperty(ModelAssembler.ALLOW_UNKNOWN_TRAITS, true);
+        for (var source : modelPackage.sources()) {
+            if (Files.exists(source)) {
+                assembler.addImport(source);
+            }
+        }
+        var assembled = assembler.assemble();
+        if (assembled.getResult().isEmpty()) {
+            var errors = assembled.getValidationEvents().stream()
+                    .filter(event -> event.getSeverity() == Severity.ERROR)
+                    .toList();
+            return new Result(modelPackage, 0, errors, true, System.nanoTime() - start);
+        }
+        var model = assembled.getResult().get();
+        // Validating the assembled model again, rather than calling the linters, applies the validator
+        // definitions and suppressions. Only the linters run, and the model is not parsed again.
+        var validated = Model.assembler(loader)
+                .addModel(withDefaultLinters(model))
+                .putProperty(ModelAssembler.ALLOW_UNKNOWN_TRAITS, true)
+                .validatorFactory(new PackageLinters(modelPackage.directory().toAbsolutePath()))
+                .assemble();
+        var events = validated.getValidationEvents()
+                .stream()
+                .filter(event -> event.getSeverity() != Severity.SUPPRESSED)
+                .toList();
+        return new Result(modelPackage, model.toSet().size(), events, false, System.nanoTime() - start);
+    }
+
+    // Adds the default linters to the `validators` metadata of a model that configures neither linter.
+    private Model withDefaultLinters(Model model) {
+        var definitions = model.getMetadataProperty("validators")
+                .flatMap(Node::asArrayNode)
+                .map(ArrayNode::getElements)
+                .orElse(List.of());
+        for (var definition : definitions) {
+            var name = definition.asObjectNode().map(node -> node.getStringMemberOrDefault("name", "")).orElse("");
+            if (LINTERS.containsKey(name)) {
+                return model;
+            }
+        }
+        List<Node> combined = new ArrayList<>(definitions);
+        for (var member : defaults.getStringMap().entrySet()) {
+            if (LINTERS.containsKey(member.getKey())) {
+                combined.add(Node.objectNode()
+                        .withMember("name", member.getKey())
+                        .withMember("configuration", member.getValue()));
+            }
+        }
+        return model.toBuilder().putMetadataProperty("validators", Node.fromNodes(combined)).build();
+    }
+
+    // Creates the linters of one package, shared with other packages that configure them the same way.
+    // Other validators, including the built-in ones, are not run, since the runner only proofreads.
+    private final class PackageLinters implements ValidatorFactory {
+        private final Path directory;
+
+        PackageLinters(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        public List<Validator> loadBuiltinValidators() {
+            return List.of();
+        }
+
+        @Override
+        public Optional<Validator> createValidator(String name, ObjectNode configuration) {
+            if (!LINTERS.containsKey(name)) {
+                return Optional.of(model -> List.of());
+            }
+            var key = new LinterKey(name, resolvePaths(configuration, directory));
+            return Optional.of(linters.computeIfAbsent(key, k -> LINTERS.get(k.name()).apply(k.configuration())));
+        }
+    }
+
+    private record Result(
+            ModelPackage modelPackage,
+            int shapes,
+            List<ValidationEvent> events,
+            boolean failed,
+            long nanos
+    ) {
+        int danger() {
+            return (int) events.stream().filter(event -> event.getSeverity() == Severity.DANGER).count();
+        }
+
+        Node toNode() {
+            return Node.objectNode()
+                    .withMember("package", modelPackage.directory().toString())
+                    .withMember("failed", failed)
+                    .withMember("shapes", shapes)
+                    .withMember("millis", nanos / 1_000_000)
+                    .withMember("events", Node.fromNodes(events.stream().map(ValidationEvent::toNode).toList()));
+        }
+
+        String summary() {
+            if (failed) {
+                return modelPackage.directory() + ": unable to assemble the model (" + events.size() + " errors)";
+            }
+            return String.format("%s: %d events, %d DANGER, %d shapes in %d ms",
+                    modelPackage.directory(),
+                    events.size(),
+                    danger(),
+                    shapes,
+                    nanos / 1_000_000);
+        }
+    }
+}
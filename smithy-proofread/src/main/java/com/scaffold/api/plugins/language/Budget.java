@@ -0,0 +1,160 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import software.amazon.smithy.model.SourceLocation;
+import software.amazon.smithy.model.knowledge.TextInstance;
+import software.amazon.smithy.model.validation.Severity;
+import software.amazon.smithy.model.validation.ValidationEvent;
+
+/**
+ * Time limits on a single validator run, and the texts they cut short.
+ * <p>
+ * Each text gets its own budget, and all texts share the budget of the model,
+ * which starts when the budget is created. Budgets are enforced between chunks
+ * of a text (see {@link TextChunks}), since a LanguageTool check cannot be
+ * interrupted, so a text can overrun its budget by the time taken to check one
+ * chunk.
+ */
+final class Budget {
+    private static final int EXAMPLE_COUNT = 5;
+
+    private final LongSupplier clock;
+    private final long textNanos;
+    private final long modelDeadline;
+    private final List<TextInstance> skipped = new ArrayList<>();
+    private final List<Partial> partial = new ArrayList<>();
+
+    private record Partial(TextInstance text, int checkedChars) {}
+
+    /**
+     * @param text time budget of each text, or zero for no limit.
+     * @param model time budget of all texts, starting now, or zero for no limit.
+     */
+    Budget(Duration text, Duration model) {
+        this(text, model, System::nanoTime);
+    }
+
+    /**
+     * @param text time budget of each text, or zero for no limit.
+     * @param model time budget of all texts, starting now, or zero for no limit.
+     * @param clock current time in nanoseconds, on the same time base as {@link System#nanoTime()}.
+     */
+    Budget(Duration text, Duration model, LongSupplier clock) {
+        this.clock = clock;
+        this.textNanos = text.toNanos();
+        this.modelDeadline = model.isZero() ? Long.MAX_VALUE : clock.getAsLong() + model.toNanos();
+    }
+
+    /**
+     * @return deadline, as a value of {@link System#nanoTime()}, of a text whose check starts now.
+     */
+    long textDeadline() {
+        if (textNanos <= 0) {
+            return modelDeadline;
+        }
+        return Math.min(modelDeadline, clock.getAsLong() + textNanos);
+    }
+
+    /**
+     * @return time budget of each text in nanoseconds, or zero for no limit.
+     */
+    long textNanos() {
+        return Math.max(0, textNanos);
+    }
+
+    /**
+     * @return nanoseconds left of the budget of all texts, or {@link Long#MAX_VALUE} for no limit.
+     */
+    long remainingNanos() {
+        if (modelDeadline == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, modelDeadline - clock.getAsLong());
+    }
+
+    /**
+     * @param deadline deadline returned by {@link #textDeadline()}.
+     * @return true if the deadline has passed.
+     */
+    boolean expired(long deadline) {
+        return clock.getAsLong() >= deadline;
+    }
+
+    /**
+     * Record the result of checking a text, noting it if the budget cut it short.
+     *
+     * @param text checked text.
+     * @param result result of the check.
+     */
+    synchronized void record(TextInstance text, TextChunks.Result<?> result) {
+        if (result.complete()) {
+            return;
+        }
+        if (result.checkedChars() == 0) {
+            skipped.add(text);
+        } else {
+            partial.add(new Partial(text, result.checkedChars()));
+        }
+    }
+
+    /**
+     * Create note events describing the texts that were not fully checked.
+     *
+     * @param validator name of the validator.
+     * @return one event per partially checked text, and one for all skipped texts.
+     */
+    synchronized List<ValidationEvent> events(String validator) {
+        List<ValidationEvent> events = new ArrayList<>();
+        for (var entry : partial) {
+            var text = entry.text();
+            var builder = ValidationEvent.builder()
+                    .id(validator + ".Budget")
+                    .severity(Severity.NOTE)
+                    .message(String.format("Only checked the first %d of %d characters of this %s before running "
+                            + "out of time. Increase `textBudgetMillis` or `modelBudgetMillis` to check all of it.",
+                            entry.checkedChars(),
+                            text.getText().length(),
+                            describe(text)));
+            if (text.getLocationType() == TextInstance.TextLocationType.APPLIED_TRAIT) {
+                builder.shapeId(text.getShape().getId()).sourceLocation(text.getTrait().getSourceLocation());
+            } else if (text.getShape() != null) {
+                builder.shapeId(text.getShape().getId()).sourceLocation(text.getShape().getSourceLocation());
+            } else {
+                builder.sourceLocation(SourceLocation.none());
+            }
+            events.add(builder.build());
+        }
+        if (!skipped.isEmpty()) {
+            var examples = skipped.stream()
+                    .limit(EXAMPLE_COUNT)
+                    .map(text -> text.getShape() == null ? text.getText() : text.getShape().getId().toString())
+                    .collect(Collectors.joining("`, `", "`", "`"));
+            events.add(ValidationEvent.builder()
+                    .id(validator + ".Budget")
+                    .severity(Severity.NOTE)
+                    .sourceLocation(SourceLocation.none())
+                    .message(String.format("Skipped %d texts after running out of time, including texts of %s. "
+                            + "Increase `modelBudgetMillis` to check all texts.",
+                            skipped.size(),
+                            examples))
+                    .build());
+        }
+        return events;
+    }
+
+    private static String describe(TextInstance text) {
+        return switch (text.getLocationType()) {
+            case APPLIED_TRAIT -> "`" + text.getTrait().toShapeId().getName() + "` trait value";
+            case NAMESPACE -> "namespace";
+            default -> "shape name";
+        };
+    }
+}
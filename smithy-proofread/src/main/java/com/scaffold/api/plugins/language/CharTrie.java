@@ -0,0 +1,143 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable character trie stored in flat arrays.
+ * <p>
+ * Nodes are numbered breadth-first so the children of a node are contiguous and
+ * sorted by their edge character, and are found with a binary search. Finding
+ * whether any key is a prefix of a string costs at most one binary search per
+ * character of the string, no matter how many keys the trie holds.
+ */
+final class CharTrie {
+    private static final int ROOT = 0;
+
+    // Character on the edge leading into each node.
+    private final char[] edges;
+    // Index of the first child of each node, and the number of children.
+    private final int[] firstChild;
+    private final int[] childCount;
+    // Whether a key ends at each node.
+    private final boolean[] terminal;
+
+    private CharTrie(char[] edges, int[] firstChild, int[] childCount, boolean[] terminal) {
+        this.edges = edges;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.terminal = terminal;
+    }
+
+    /**
+     * Build a trie.
+     *
+     * @param keys keys to store.
+     * @param reversed whether to store each key reversed, for suffix lookups.
+     * @return trie holding all keys.
+     */
+    static CharTrie of(Collection<String> keys, boolean reversed) {
+        var root = new Node();
+        int nodeCount = 1;
+        for (var key : keys) {
+            var node = root;
+            for (int i = 0; i < key.length(); i++) {
+                var c = key.charAt(reversed ? key.length() - 1 - i : i);
+                var child = node.children.get(c);
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(c, child);
+                    nodeCount++;
+                }
+                node = child;
+            }
+            node.terminal = true;
+        }
+
+        var edges = new char[nodeCount];
+        var firstChild = new int[nodeCount];
+        var childCount = new int[nodeCount];
+        var terminal = new boolean[nodeCount];
+        var queue = new ArrayDeque<Node>();
+        queue.add(root);
+        int index = 0;
+        int next = 1;
+        while (!queue.isEmpty()) {
+            var node = queue.poll();
+            terminal[index] = node.terminal;
+            firstChild[index] = next;
+            childCount[index] = node.children.size();
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                edges[next++] = child.getKey();
+                queue.add(child.getValue());
+            }
+            index++;
+        }
+        return new CharTrie(edges, firstChild, childCount, terminal);
+    }
+
+    /**
+     * Check if any key starts {@code text}, or ends it for a reversed trie.
+     *
+     * @param text text to check.
+     * @param reversed whether to walk the text from its end.
+     * @return true if some key is a prefix (or suffix) of {@code text}.
+     */
+    boolean matchesStartOf(CharSequence text, boolean reversed) {
+        int node = ROOT;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (terminal[node]) {
+                return true;
+            }
+            node = child(node, text.charAt(reversed ? length - 1 - i : i));
+            if (node < 0) {
+                return false;
+            }
+        }
+        return terminal[node];
+    }
+
+    /**
+     * @return number of nodes in the trie.
+     */
+    int nodeCount() {
+        return edges.length;
+    }
+
+    /**
+     * @return approximate number of bytes used by the trie's arrays.
+     */
+    long estimatedBytes() {
+        // char + two ints + boolean per node.
+        return (long) edges.length * (Character.BYTES + 2 * Integer.BYTES + 1);
+    }
+
+    private int child(int node, char c) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            var edge = edges[mid];
+            if (edge < c) {
+                low = mid + 1;
+            } else if (edge > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new TreeMap<>();
+        private boolean terminal;
+    }
+}
@@ -5,17 +5,28 @@
 package com.scaffold.api.plugins.language;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.List;
-import java.util.StringTokenizer;
 import org.languagetool.tokenizers.WordTokenizer;
 
 /**
  * Tokenizer for code.
  * <p>
  * Splits camel, snake, and kebab-cased variables into words.
+ * <p>
+ * Text is scanned once. Every tokenizing character is emitted as its own token,
+ * and runs between them are split before an upper-case letter that follows a
+ * non upper-case character ({@code fooBar} to {@code foo, Bar}) and before the
+ * last upper-case letter of an acronym followed by a lower-case letter
+ * ({@code HTTPServer} to {@code HTTP, Server}). Only ASCII letters are
+ * considered for case boundaries.
  */
 public final class CodeTokenizer extends WordTokenizer {
+    private final BitSet delimiters = new BitSet();
+
+    public CodeTokenizer() {
+        getTokenizingCharacters().codePoints().forEach(delimiters::set);
+    }
 
     @Override
     public String getTokenizingCharacters() {
@@ -25,10 +36,40 @@ public final class CodeTokenizer extends WordTokenizer {
     @Override
     public List<String> tokenize(String text) {
         List<String> list = new ArrayList<>();
-        var tokenizer = new StringTokenizer(text, this.getTokenizingCharacters(), true);
-        while (tokenizer.hasMoreElements()) {
-            Collections.addAll(list, tokenizer.nextToken().split("(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])"));
+        int runStart = 0;
+        int pos = 0;
+        int length = text.length();
+        while (pos < length) {
+            int cp = text.codePointAt(pos);
+            int next = pos + Character.charCount(cp);
+            if (delimiters.get(cp)) {
+                if (runStart < pos) {
+                    list.add(text.substring(runStart, pos));
+                }
+                list.add(text.substring(pos, next));
+                runStart = next;
+            } else if (pos > runStart && isUpper(cp) && isBoundary(text, pos, next, length)) {
+                list.add(text.substring(runStart, pos));
+                runStart = pos;
+            }
+            pos = next;
+        }
+        if (runStart < length) {
+            list.add(text.substring(runStart, length));
         }
         return this.joinEMailsAndUrls(list);
     }
+
+    // Called for an upper-case letter that does not start a run.
+    private static boolean isBoundary(String text, int pos, int next, int length) {
+        return !isUpper(text.charAt(pos - 1)) || (next < length && isLower(text.charAt(next)));
+    }
+
+    private static boolean isUpper(int c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isLower(int c) {
+        return c >= 'a' && c <= 'z';
+    }
 }
@@ -12,7 +12,6 @@ import org.languagetool.Language;
 import org.languagetool.UserConfig;
 import org.languagetool.language.English;
 import org.languagetool.rules.Rule;
-import org.languagetool.rules.en.MorfologikAmericanSpellerRule;
 import org.languagetool.tokenizers.Tokenizer;
 import software.amazon.smithy.utils.SmithyInternalApi;
 
@@ -24,7 +23,7 @@ import software.amazon.smithy.utils.SmithyInternalApi;
 @SuppressWarnings("deprecation")
 @SmithyInternalApi
 public final class CodingEnglish extends English {
-    private static final List<String> EXTRA_TERMS = List.of(
+    static final List<String> EXTRA_TERMS = List.of(
             "docstring",
             "doc",
             "api",
@@ -34,6 +33,39 @@ public final class CodingEnglish extends English {
             "idx",
             "com");
 
+    private final RuleSelection rules;
+    private final boolean spellingOnly;
+
+    public CodingEnglish() {
+        this(RuleSelection.DEFAULT);
+    }
+
+    /**
+     * @param rules grammar rules to load. Rules that are not selected are never created.
+     */
+    CodingEnglish(RuleSelection rules) {
+        this(rules, false);
+    }
+
+    private CodingEnglish(RuleSelection rules, boolean spellingOnly) {
+        this.rules = rules;
+        this.spellingOnly = spellingOnly;
+    }
+
+    /**
+     * Create English for tools that only check spelling.
+     * <p>
+     * No grammar rule is created and no rule file is parsed. Texts are still
+     * tokenized, tagged and disambiguated as usual, since the speller skips
+     * tokens that disambiguation marks, so it finds the same typos as a tool
+     * over the full language with only the speller enabled.
+     *
+     * @return English that only provides the speller rule.
+     */
+    static CodingEnglish spellingOnly() {
+        return new CodingEnglish(RuleSelection.DEFAULT, true);
+    }
+
     @Override
     public Tokenizer createDefaultWordTokenizer() {
         return new CodeTokenizer();
@@ -46,11 +78,27 @@ public final class CodingEnglish extends English {
             Language motherTongue,
             List<Language> altLanguages
     ) throws IOException {
-        List<Rule> rules = new ArrayList<>(super.getRelevantRules(messages, userConfig, motherTongue, altLanguages));
-        var spellchecker = new MorfologikAmericanSpellerRule(messages, this);
+        var spellchecker = new CodingSpellerRule(messages, this);
         spellchecker.addIgnoreTokens(EXTRA_TERMS);
-        rules.add(spellchecker);
-        return rules;
+        if (spellingOnly) {
+            return List.of(spellchecker);
+        }
+        List<Rule> relevant = new ArrayList<>();
+        for (var rule : super.getRelevantRules(messages, userConfig, motherTongue, altLanguages)) {
+            if (rules.loads(rule)) {
+                relevant.add(rule);
+            }
+        }
+        relevant.add(spellchecker);
+        return relevant;
+    }
+
+    @Override
+    public List<String> getRuleFileNames() {
+        if (spellingOnly) {
+            return List.of();
+        }
+        return super.getRuleFileNames().stream().filter(rules::loadsRuleFile).toList();
     }
 
     /**
@@ -58,7 +106,7 @@ public final class CodingEnglish extends English {
      */
     public static final class Provider extends LanguageService.Provider {
         public Provider() {
-            super("en", CodingEnglish::new);
+            super("en", CodingEnglish::new, CodingEnglish::spellingOnly);
         }
     }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.ResourceBundle;
+import org.languagetool.Language;
+import org.languagetool.rules.en.MorfologikAmericanSpellerRule;
+
+/**
+ * American English speller used by {@link CodingEnglish}.
+ * <p>
+ * Adds pattern-based ignores and compiled dictionaries, and exposes single-word lookups so identifiers
+ * can be checked without running the full LanguageTool pipeline.
+ */
+final class CodingSpellerRule extends MorfologikAmericanSpellerRule {
+    private IgnorePatterns ignorePatterns = IgnorePatterns.EMPTY;
+    private List<CompiledDictionary> dictionaries = List.of();
+
+    CodingSpellerRule(ResourceBundle messages, Language language) throws IOException {
+        super(messages, language);
+    }
+
+    /**
+     * @param ignorePatterns patterns of words to ignore, checked before the speller dictionary.
+     */
+    void setIgnorePatterns(IgnorePatterns ignorePatterns) {
+        this.ignorePatterns = ignorePatterns;
+    }
+
+    /**
+     * @param dictionaries dictionaries of words to accept, checked before the speller dictionary.
+     */
+    void setDictionaries(List<CompiledDictionary> dictionaries) {
+        this.dictionaries = List.copyOf(dictionaries);
+    }
+
+    @Override
+    protected boolean ignoreWord(String word) throws IOException {
+        return ignorePatterns.matches(word) || inDictionaries(word) || super.ignoreWord(word);
+    }
+
+    private boolean inDictionaries(String word) {
+        for (var dictionary : dictionaries) {
+            if (dictionary.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if a single word would never be reported by this rule.
+     *
+     * @param word word to look up.
+     * @return true if the word is ignored or spelled correctly, and is not prohibited.
+     * @throws IOException if the speller dictionary cannot be loaded.
+     */
+    boolean isKnownWord(String word) throws IOException {
+        return !isProhibited(word) && (ignoreWord(word) || !isMisspelled(word));
+    }
+}
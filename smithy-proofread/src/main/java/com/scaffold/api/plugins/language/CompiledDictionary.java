@@ -0,0 +1,313 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only word list compiled by {@link DictionaryCompiler} and memory-mapped.
+ * <p>
+ * Words are stored sorted by their UTF-8 bytes, in blocks of {@value #BLOCK_SIZE}.
+ * The first word of a block is stored whole, and each following word as the
+ * length of the prefix it shares with the previous word and the rest of its bytes.
+ * An index of block offsets follows the header. A lookup binary searches the
+ * first words of the blocks, then scans a single block.
+ * <p>
+ * The file is mapped rather than read, so opening a dictionary costs the same
+ * however many words it holds, the heap only holds this object, and processes
+ * that map the same file share its pages. A file is mapped once per process,
+ * and mapped again if it was modified since.
+ * <p>
+ * Layout, in big-endian order: magic, version, word count, block count, length
+ * of the longest word in bytes and CRC32 of the blocks as 32-bit integers, then
+ * the offset of each block from the end of the index, then the blocks. Lengths
+ * within blocks are unsigned LEB128 variable-length integers.
+ */
+final class CompiledDictionary {
+    private static final int MAGIC = 0x464C5844; // "FLXD"
+    private static final int VERSION = 1;
+    private static final int BLOCK_SIZE = 16;
+    private static final int HEADER_BYTES = 6 * Integer.BYTES;
+    // By real path. A recompiled file replaces the mapping of its previous version.
+    private static final Map<Path, CompiledDictionary> OPEN = new ConcurrentHashMap<>();
+
+    private final FileKey fileKey;
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int blockCount;
+    private final int maxWordBytes;
+    private final long checksum;
+    private final int dataStart;
+
+    // Identifies a version of a file, so a recompiled dictionary is mapped again.
+    private record FileKey(Path path, FileTime lastModified, long size) {}
+
+    private CompiledDictionary(FileKey fileKey, ByteBuffer buffer) {
+        this.fileKey = fileKey;
+        this.path = fileKey.path();
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("`" + path + "` is not a compiled dictionary");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported version " + buffer.getInt(4)
+                    + " of compiled dictionary `" + path + "`; compile it again");
+        }
+        this.size = buffer.getInt(8);
+        this.blockCount = buffer.getInt(12);
+        this.maxWordBytes = buffer.getInt(16);
+        this.checksum = Integer.toUnsignedLong(buffer.getInt(20));
+        this.dataStart = HEADER_BYTES + blockCount * Integer.BYTES;
+        if (dataStart > buffer.capacity()) {
+            throw new IllegalArgumentException("Compiled dictionary `" + path + "` is truncated");
+        }
+    }
+
+    /**
+     * Map a compiled dictionary, or get the dictionary already mapped from the same version of the file.
+     * <p>
+     * Mapping a new version of a file drops the mapping of the previous one, which is
+     * released once no tool uses it.
+     *
+     * @param path compiled dictionary file.
+     * @return mapped dictionary.
+     * @throws UncheckedIOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a compiled dictionary.
+     */
+    static CompiledDictionary open(Path path) {
+        FileKey key;
+        try {
+            var real = path.toRealPath();
+            key = new FileKey(real, Files.getLastModifiedTime(real), Files.size(real));
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to read compiled dictionary `" + path + "`", exc);
+        }
+        return OPEN.compute(key.path(), (path, mapped) -> mapped != null && mapped.fileKey.equals(key)
+                ? mapped
+                : map(key));
+    }
+
+    private static CompiledDictionary map(FileKey key) {
+        var path = key.path();
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Compiled dictionary `" + path + "` is larger than 2 GiB");
+            }
+            // The mapping stays valid after the channel is closed.
+            return new CompiledDictionary(key, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to read compiled dictionary `" + path + "`", exc);
+        }
+    }
+
+    /**
+     * @return file the dictionary was mapped from.
+     */
+    Path path() {
+        return path;
+    }
+
+    /**
+     * @return number of words in the dictionary.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return CRC32 of the words, which changes whenever the compiled words change.
+     */
+    long checksum() {
+        return checksum;
+    }
+
+    /**
+     * Check if the dictionary contains a word, or its lower-cased form.
+     *
+     * @param word word to look up.
+     * @return true if the dictionary contains the word.
+     */
+    boolean contains(String word) {
+        if (containsExactly(word)) {
+            return true;
+        }
+        var lower = word.toLowerCase(Locale.ROOT);
+        return !lower.equals(word) && containsExactly(lower);
+    }
+
+    private boolean containsExactly(String word) {
+        var key = word.getBytes(StandardCharsets.UTF_8);
+        if (blockCount == 0 || key.length > maxWordBytes) {
+            return false;
+        }
+        // Find the last block whose first word is not after the key.
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            var mid = (low + high + 1) >>> 1;
+            if (compareFirst(mid, key) <= 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return scan(low, key);
+    }
+
+    private int blockStart(int block) {
+        return dataStart + buffer.getInt(HEADER_BYTES + block * Integer.BYTES);
+    }
+
+    private int compareFirst(int block, byte[] key) {
+        var offset = blockStart(block);
+        var length = readVarint(offset);
+        offset += varintBytes(length);
+        var common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            var cmp = Integer.compare(buffer.get(offset + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private boolean scan(int block, byte[] key) {
+        var word = new byte[maxWordBytes];
+        var offset = blockStart(block);
+        var count = Math.min(BLOCK_SIZE, size - block * BLOCK_SIZE);
+        for (int i = 0; i < count; i++) {
+            int shared = 0;
+            if (i > 0) {
+                shared = readVarint(offset);
+                offset += varintBytes(shared);
+            }
+            var suffix = readVarint(offset);
+            offset += varintBytes(suffix);
+            buffer.get(offset, word, shared, suffix);
+            offset += suffix;
+            var cmp = Arrays.compareUnsigned(word, 0, shared + suffix, key, 0, key.length);
+            if (cmp == 0) {
+                return true;
+            } else if (cmp > 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private int readVarint(int offset) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get(offset++);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static int varintBytes(int value) {
+        int bytes = 1;
+        while ((value >>>= 7) != 0) {
+            bytes++;
+        }
+        return bytes;
+    }
+
+    /**
+     * Write words as a compiled dictionary.
+     *
+     * @param words words to write, in any order. Duplicates are written once.
+     * @param out stream to write the dictionary to.
+     * @return number of distinct words written.
+     * @throws IOException if the dictionary cannot be written.
+     */
+    static int write(Collection<String> words, OutputStream out) throws IOException {
+        var sorted = words.stream()
+                .map(word -> word.getBytes(StandardCharsets.UTF_8))
+                .sorted(Arrays::compareUnsigned)
+                .toArray(byte[][]::new);
+        var data = new ByteArrayOutputStream();
+        var offsets = new int[(sorted.length + BLOCK_SIZE - 1) / BLOCK_SIZE];
+        int count = 0;
+        int maxWordBytes = 0;
+        byte[] previous = null;
+        for (var word : sorted) {
+            if (word.length == 0 || (previous != null && Arrays.equals(previous, word))) {
+                continue;
+            }
+            int shared = 0;
+            if (count % BLOCK_SIZE == 0) {
+                offsets[count / BLOCK_SIZE] = data.size();
+            } else {
+                shared = Arrays.mismatch(previous, word);
+                writeVarint(data, shared);
+            }
+            writeVarint(data, word.length - shared);
+            data.write(word, shared, word.length - shared);
+            maxWordBytes = Math.max(maxWordBytes, word.length);
+            previous = word;
+            count++;
+        }
+        var blockCount = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        var bytes = data.toByteArray();
+        var crc = new CRC32();
+        crc.update(bytes);
+        var header = ByteBuffer.allocate(HEADER_BYTES + blockCount * Integer.BYTES)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(count)
+                .putInt(blockCount)
+                .putInt(maxWordBytes)
+                .putInt((int) crc.getValue());
+        for (int i = 0; i < blockCount; i++) {
+            header.putInt(offsets[i]);
+        }
+        out.write(header.array());
+        out.write(bytes);
+        return count;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Write words to a compiled dictionary file, replacing it if it exists.
+     *
+     * @param words words to write.
+     * @param file file to write.
+     * @return number of distinct words written.
+     * @throws IOException if the file cannot be written.
+     */
+    static int write(Collection<String> words, Path file) throws IOException {
+        try (var out = Files.newOutputStream(file)) {
+            return write(words, out);
+        }
+    }
+}
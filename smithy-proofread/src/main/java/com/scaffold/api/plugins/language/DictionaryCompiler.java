@@ -0,0 +1,78 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import software.amazon.smithy.utils.SmithyInternalApi;
+
+/**
+ * Compiles word lists into a {@link CompiledDictionary} for the {@code dictionaries}
+ * option of the SpellCheck linter.
+ * <p>
+ * Usage: {@code DictionaryCompiler <output> <word list>...}
+ * <p>
+ * Each line of a word list holds a word, optionally followed by its inflected
+ * forms, separated by whitespace, such as {@code deploy deploys deployed deploying}.
+ * Every word on a line is added. Blank lines and lines starting with {@code #}
+ * are skipped. Words are not lower-cased, but a lower-case word also accepts
+ * its capitalized forms when checked.
+ * <p>
+ * The output is written to a temporary file and moved over the previous one, so
+ * processes that have the previous file mapped keep reading a consistent copy.
+ */
+@SmithyInternalApi
+public final class DictionaryCompiler {
+    private DictionaryCompiler() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DictionaryCompiler <output> <word list>...");
+            System.exit(2);
+        }
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            inputs.add(Path.of(args[i]));
+        }
+        var output = Path.of(args[0]);
+        var count = compile(inputs, output);
+        System.out.println("Compiled " + count + " words into " + output + " (" + Files.size(output) + " bytes)");
+    }
+
+    /**
+     * Compile word lists into a dictionary file.
+     *
+     * @param inputs word lists to compile.
+     * @param output dictionary file to write.
+     * @return number of distinct words written.
+     * @throws IOException if a word list cannot be read or the dictionary cannot be written.
+     */
+    static int compile(List<Path> inputs, Path output) throws IOException {
+        List<String> words = new ArrayList<>();
+        for (var input : inputs) {
+            try (var lines = Files.lines(input, StandardCharsets.UTF_8)) {
+                lines.map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .forEach(line -> words.addAll(List.of(line.split("\\s+"))));
+            }
+        }
+        var absolute = output.toAbsolutePath();
+        var parent = absolute.getParent();
+        Files.createDirectories(parent);
+        var temp = Files.createTempFile(parent, absolute.getFileName().toString(), ".tmp");
+        try {
+            var count = CompiledDictionary.write(words, temp);
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return count;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
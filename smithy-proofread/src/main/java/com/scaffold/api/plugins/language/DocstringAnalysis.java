@@ -0,0 +1,299 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.languagetool.JLanguageTool;
+import org.languagetool.rules.CleanOverlappingFilter;
+import org.languagetool.rules.RuleMatch;
+import org.languagetool.rules.spelling.SpellingCheckRule;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.knowledge.KnowledgeIndex;
+import software.amazon.smithy.model.knowledge.TextIndex;
+import software.amazon.smithy.model.knowledge.TextInstance;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.traits.DocumentationTrait;
+import software.amazon.smithy.model.validation.ValidatorService;
+
+/**
+ * Spelling and grammar matches for the docstrings of a model, found with a
+ * single LanguageTool check per docstring.
+ * <p>
+ * When a model enables both {@code SpellCheck} and {@code Proofread}, each
+ * would otherwise sentence-split, tokenize, tag and disambiguate every
+ * docstring on its own. Instead, the first of the two validators to run
+ * checks each docstring once with every rule active and splits the matches by
+ * rule: spellcheck matches go to {@code SpellCheck}, all others to
+ * {@code Proofread}. The other validator waits for, then reuses, the results.
+ * Docstrings already in the result cache of the first validator are not
+ * analyzed; each validator stores analyzed results in its own result cache
+ * and emits its own events.
+ * <p>
+ * Docstrings are only analyzed once when the {@code validators} metadata of
+ * the model holds exactly one entry for each validator, both use the same
+ * language, chunk size and sentence mode, {@code SpellCheck} checks
+ * docstrings, and neither uses a {@link ProofreadWorker}. Each validator only
+ * reuses the results if it was created from the configuration in the metadata.
+ * Otherwise, each validator checks docstrings with its own tool.
+ * <p>
+ * Docstrings are checked within the time budget of the validator that runs
+ * first. The other validator notes any docstrings that were cut short.
+ */
+final class DocstringAnalysis implements KnowledgeIndex {
+    private static final Logger LOGGER = Logger.getLogger(DocstringAnalysis.class.getName());
+    private static final String SPELL_CHECK = ValidatorService.determineNameFromClass(SpellCheckValidator.class);
+    private static final String PROOFREAD = ValidatorService.determineNameFromClass(ProofreadValidator.class);
+    private static final Object LOCK = new Object();
+
+    private final Model model;
+    private final ObjectNode spellCheckConfiguration;
+    private final ObjectNode proofreadConfiguration;
+    private final SpellCheckValidator.Config spellCheck;
+    private final ProofreadValidator.Config proofread;
+    private Map<TextInstance, Matches> matches;
+
+    /**
+     * Matches found in a single docstring.
+     *
+     * @param spelling matches of spellcheck rules, with suggestions computed as configured for SpellCheck.
+     * @param grammar matches of all other rules.
+     */
+    record Matches(TextChunks.Result<TextMatch> spelling, TextChunks.Result<TextMatch> grammar) {
+        int size() {
+            return spelling.matches().size() + grammar.matches().size();
+        }
+    }
+
+    private record RuleMatchOf(boolean spelling, TextMatch match) {
+        RuleMatchOf shifted(int offset) {
+            return new RuleMatchOf(spelling, match.shifted(offset));
+        }
+    }
+
+    // Settings of the analysis, derived from both configurations by the first validator to request matches.
+    private record Analyzer(
+            ToolSpec spec,
+            Suggestions suggestions,
+            int maxChunkChars,
+            SentenceCache.Scope sentences
+    ) {}
+
+    private DocstringAnalysis(Model model) {
+        this.model = model;
+        List<ObjectNode> spellChecks = new ArrayList<>();
+        List<ObjectNode> proofreads = new ArrayList<>();
+        var definitions = model.getMetadataProperty("validators").flatMap(Node::asArrayNode);
+        for (var definition : definitions.map(a -> a.getElementsAs(ObjectNode.class)).orElse(List.of())) {
+            var name = definition.getStringMemberOrDefault("name", "");
+            var configuration = definition.getObjectMember("configuration").orElse(Node.objectNode());
+            if (name.equals(SPELL_CHECK)) {
+                spellChecks.add(configuration);
+            } else if (name.equals(PROOFREAD)) {
+                proofreads.add(configuration);
+            }
+        }
+        SpellCheckValidator.Config spellCheckConfig = null;
+        ProofreadValidator.Config proofreadConfig = null;
+        if (spellChecks.size() == 1 && proofreads.size() == 1) {
+            spellCheckConfig = SpellCheckValidator.config(spellChecks.get(0));
+            proofreadConfig = ProofreadValidator.config(proofreads.get(0));
+        }
+        var fused = spellCheckConfig != null
+                && spellCheckConfig.docstrings()
+                && spellCheckConfig.language().equals(proofreadConfig.language())
+                && spellCheckConfig.maxChunkChars() == proofreadConfig.maxChunkChars()
+                && (spellCheckConfig.sentenceCacheSize() > 0) == (proofreadConfig.sentenceCacheSize() > 0)
+                && !spellCheckConfig.worker()
+                && !proofreadConfig.worker();
+        this.spellCheckConfiguration = fused ? spellChecks.get(0) : null;
+        this.proofreadConfiguration = fused ? proofreads.get(0) : null;
+        this.spellCheck = fused ? spellCheckConfig : null;
+        this.proofread = fused ? proofreadConfig : null;
+    }
+
+    /**
+     * Get the docstring analysis of a model.
+     *
+     * @param model model to analyze.
+     * @return analysis of the model. Docstrings are only checked once matches are requested.
+     */
+    static DocstringAnalysis of(Model model) {
+        // Validators can run concurrently, and Model does not guarantee that concurrent requests for the same
+        // index share an instance. A private lock makes them share without locking a model others may lock.
+        // Creating an analysis only deserializes configuration, so holding one lock for all models costs little.
+        synchronized (LOCK) {
+            return model.getKnowledge(DocstringAnalysis.class, DocstringAnalysis::new);
+        }
+    }
+
+    /**
+     * Get the spelling matches of analyzed docstrings.
+     *
+     * @param validator validator requesting the matches.
+     * @param metrics records the analysis, if this request runs it.
+     * @param budget limits the analysis, if this request runs it.
+     * @return matches by docstring, or an empty map if docstrings are not analyzed for this validator.
+     */
+    Map<TextInstance, TextChunks.Result<TextMatch>> spellingFor(
+            SpellCheckValidator validator,
+            Metrics metrics,
+            Budget budget
+    ) {
+        if (spellCheck == null || !spellCheckConfiguration.equals(validator.configuration())) {
+            return Map.of();
+        }
+        return project(Matches::spelling, () -> analyzer(validator.spec()), validator.cache(), metrics, budget);
+    }
+
+    /**
+     * Get the grammar matches of analyzed docstrings.
+     *
+     * @param validator validator requesting the matches.
+     * @param metrics records the analysis, if this request runs it.
+     * @param budget limits the analysis, if this request runs it.
+     * @return matches by docstring, or an empty map if docstrings are not analyzed for this validator.
+     */
+    Map<TextInstance, TextChunks.Result<TextMatch>> grammarFor(
+            ProofreadValidator validator,
+            Metrics metrics,
+            Budget budget
+    ) {
+        if (proofread == null || !proofreadConfiguration.equals(validator.configuration())) {
+            return Map.of();
+        }
+        return project(Matches::grammar,
+                () -> analyzer(SpellCheckValidator.spec(spellCheck)),
+                validator.cache(),
+                metrics,
+                budget);
+    }
+
+    // Reading ignore files and mapping dictionaries is left to the first validator to request matches.
+    private Analyzer analyzer(ToolSpec spelling) {
+        var spellCheckFingerprint = SpellCheckValidator.fingerprint(spellCheck, spelling);
+        var grammar = ProofreadValidator.spec(proofread);
+        var proofreadFingerprint = ProofreadValidator.fingerprint(proofread, grammar);
+        var sentenceCache = spellCheck.sentenceCacheSize() > 0
+                ? SentenceCache.shared(spellCheck.sentenceCacheSize())
+                : null;
+        return new Analyzer(
+                ToolSpec.all(spelling.languageCode(),
+                        spelling.ignore(),
+                        spelling.ignorePatterns(),
+                        spelling.dictionaries(),
+                        grammar.rules()),
+                SpellCheckValidator.suggestions(spellCheck),
+                spellCheck.maxChunkChars(),
+                SentenceCache.scope(sentenceCache, spellCheckFingerprint + ";" + proofreadFingerprint));
+    }
+
+    private Map<TextInstance, TextChunks.Result<TextMatch>> project(
+            Function<Matches, TextChunks.Result<TextMatch>> part,
+            Supplier<Analyzer> analyzer,
+            ResultCache.Scope cache,
+            Metrics metrics,
+            Budget budget
+    ) {
+        Map<TextInstance, TextChunks.Result<TextMatch>> result = new IdentityHashMap<>();
+        for (var entry : matches(analyzer, cache, metrics, budget).entrySet()) {
+            result.put(entry.getKey(), part.apply(entry.getValue()));
+        }
+        return result;
+    }
+
+    // The first caller checks every docstring it has no cached result for while later callers wait for the results.
+    private synchronized Map<TextInstance, Matches> matches(
+            Supplier<Analyzer> analyzer,
+            ResultCache.Scope cache,
+            Metrics metrics,
+            Budget budget
+    ) {
+        if (matches == null) {
+            matches = new IdentityHashMap<>();
+            Analyzer settings;
+            try {
+                settings = analyzer.get();
+            } catch (RuntimeException e) {
+                // The validators report invalid settings themselves, and check docstrings on their own.
+                LOGGER.log(Level.FINE, "Unable to analyze docstrings", e);
+                return matches;
+            }
+            List<TextInstance> docstrings = new ArrayList<>();
+            for (var text : TextIndex.of(model).getTextInstances()) {
+                if (text.getLocationType() == TextInstance.TextLocationType.APPLIED_TRAIT
+                        && text.getTrait().toShapeId().equals(DocumentationTrait.ID)
+                        && cache.get(text) == null) {
+                    docstrings.add(text);
+                }
+            }
+            var parallelism = Math.max(spellCheck.parallelism(), proofread.parallelism());
+            var results = ParallelTextChecker.check(docstrings, parallelism, settings.spec(), metrics,
+                    (tool, text) -> List.of(metrics.timeText(text,
+                            () -> analyze(tool, settings, text, metrics, budget.textDeadline()),
+                            Matches::size)));
+            for (int i = 0; i < docstrings.size(); i++) {
+                matches.put(docstrings.get(i), results.get(i));
+            }
+        }
+        return matches;
+    }
+
+    private Matches analyze(JLanguageTool tool, Analyzer settings, TextInstance text, Metrics metrics, long deadline) {
+        var result = TextChunks.check(text.getText(), settings.maxChunkChars(), deadline,
+                (chunk, offset) -> {
+                    List<RuleMatchOf> matches = new ArrayList<>();
+                    for (var match : settings.sentences().check(chunk,
+                            metrics,
+                            sentence -> analyzeSentences(tool, settings.suggestions(), sentence, metrics),
+                            RuleMatchOf::shifted)) {
+                        matches.add(match.shifted(offset));
+                    }
+                    return matches;
+                });
+        List<TextMatch> spelling = new ArrayList<>();
+        List<TextMatch> grammar = new ArrayList<>();
+        for (var match : result.matches()) {
+            (match.spelling() ? spelling : grammar).add(match.match());
+        }
+        return new Matches(
+                new TextChunks.Result<>(spelling, result.checkedChars(), result.length()),
+                new TextChunks.Result<>(grammar, result.checkedChars(), result.length()));
+    }
+
+    private List<RuleMatchOf> analyzeSentences(
+            JLanguageTool tool,
+            Suggestions suggestions,
+            String text,
+            Metrics metrics
+    ) {
+        List<RuleMatchOf> matches = new ArrayList<>();
+        List<RuleMatch> grammar = new ArrayList<>();
+        for (var match : LanguageCheckingUtils.getMatches(tool, text, metrics)) {
+            metrics.ruleMatch(match.getRule().getId());
+            if (match.getRule() instanceof SpellingCheckRule) {
+                var start = metrics.start();
+                var replacements = suggestions.of(match, text);
+                metrics.record(Metrics.Phase.SUGGESTIONS, start);
+                matches.add(new RuleMatchOf(true, TextMatch.of(match, replacements)));
+            } else {
+                grammar.add(match);
+            }
+        }
+        // The tool keeps overlapping matches so that typos cannot hide grammar problems.
+        // Clean up grammar matches the way a tool without spellcheck rules would.
+        for (var match : new CleanOverlappingFilter(tool.getLanguage(), false).filter(grammar)) {
+            matches.add(new RuleMatchOf(false, TextMatch.of(match, List.of())));
+        }
+        return matches;
+    }
+}
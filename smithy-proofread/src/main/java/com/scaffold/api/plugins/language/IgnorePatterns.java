@@ -0,0 +1,162 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compiled set of glob patterns for words the spellchecker ignores.
+ * <p>
+ * The only wildcard is {@code *}, which matches any run of characters, including
+ * none. Prefix patterns ({@code Aws*}) and suffix patterns ({@code *Arn}) are
+ * stored in tries, so checking them costs the same however many there are.
+ * Any other pattern ({@code Ec2*Id}) is matched one at a time. A word matches
+ * if it, or its lower-cased form, matches a pattern.
+ */
+final class IgnorePatterns {
+    static final IgnorePatterns EMPTY = compile(List.of());
+    private static final char WILDCARD = '*';
+
+    private final List<String> patterns;
+    private final CharTrie prefixes;
+    private final CharTrie suffixes;
+    private final List<String> globs;
+
+    private IgnorePatterns(List<String> patterns, CharTrie prefixes, CharTrie suffixes, List<String> globs) {
+        this.patterns = patterns;
+        this.prefixes = prefixes;
+        this.suffixes = suffixes;
+        this.globs = globs;
+    }
+
+    /**
+     * @param entry ignore list entry.
+     * @return true if the entry is a pattern rather than a plain word.
+     */
+    static boolean isPattern(String entry) {
+        return entry.indexOf(WILDCARD) >= 0;
+    }
+
+    /**
+     * Compile patterns.
+     *
+     * @param patterns patterns to compile.
+     * @return compiled patterns.
+     */
+    static IgnorePatterns compile(Collection<String> patterns) {
+        var sorted = patterns.stream().distinct().sorted().toList();
+        List<String> prefixes = new ArrayList<>();
+        List<String> suffixes = new ArrayList<>();
+        List<String> globs = new ArrayList<>();
+        for (var pattern : sorted) {
+            var first = pattern.indexOf(WILDCARD);
+            var last = pattern.lastIndexOf(WILDCARD);
+            if (first == last && first == pattern.length() - 1 && first > 0) {
+                prefixes.add(pattern.substring(0, first));
+            } else if (first == last && first == 0 && pattern.length() > 1) {
+                suffixes.add(pattern.substring(1));
+            } else {
+                globs.add(pattern);
+            }
+        }
+        return new IgnorePatterns(sorted, CharTrie.of(prefixes, false), CharTrie.of(suffixes, true), globs);
+    }
+
+    /**
+     * @param word word to check.
+     * @return true if the word matches any pattern.
+     */
+    boolean matches(String word) {
+        if (patterns.isEmpty()) {
+            return false;
+        }
+        if (matchesExactCase(word)) {
+            return true;
+        }
+        var lower = word.toLowerCase(Locale.ENGLISH);
+        return !lower.equals(word) && matchesExactCase(lower);
+    }
+
+    private boolean matchesExactCase(String word) {
+        if (prefixes.matchesStartOf(word, false) || suffixes.matchesStartOf(word, true)) {
+            return true;
+        }
+        for (var glob : globs) {
+            if (globMatches(glob, word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return number of patterns.
+     */
+    int size() {
+        return patterns.size();
+    }
+
+    /**
+     * @return source of each pattern, sorted and de-duplicated.
+     */
+    List<String> patterns() {
+        return patterns;
+    }
+
+    /**
+     * @return approximate number of bytes used by the compiled patterns.
+     */
+    long estimatedBytes() {
+        long bytes = prefixes.estimatedBytes() + suffixes.estimatedBytes();
+        for (var glob : globs) {
+            bytes += (long) glob.length() * Character.BYTES;
+        }
+        return bytes;
+    }
+
+    // Iterative wildcard match that backtracks only to the most recent '*'.
+    private static boolean globMatches(String glob, String word) {
+        int g = 0;
+        int w = 0;
+        int star = -1;
+        int resume = 0;
+        while (w < word.length()) {
+            if (g < glob.length() && glob.charAt(g) == WILDCARD) {
+                star = g++;
+                resume = w;
+            } else if (g < glob.length() && glob.charAt(g) == word.charAt(w)) {
+                g++;
+                w++;
+            } else if (star >= 0) {
+                g = star + 1;
+                w = ++resume;
+            } else {
+                return false;
+            }
+        }
+        while (g < glob.length() && glob.charAt(g) == WILDCARD) {
+            g++;
+        }
+        return g == glob.length();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof IgnorePatterns that && patterns.equals(that.patterns);
+    }
+
+    @Override
+    public int hashCode() {
+        return patterns.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return patterns.toString();
+    }
+}
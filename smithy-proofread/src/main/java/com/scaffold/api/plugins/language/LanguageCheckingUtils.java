@@ -6,10 +6,9 @@ package com.scaffold.api.plugins.language;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import org.languagetool.JLanguageTool;
 import org.languagetool.markup.AnnotatedText;
 import org.languagetool.markup.AnnotatedTextBuilder;
@@ -20,36 +19,9 @@ import org.languagetool.rules.spelling.SpellingCheckRule;
  * Utilities for checking text in Models.
  */
 final class LanguageCheckingUtils {
-    // Used to detect HTML tags in the docs
-    private static final Pattern TAG_PATTERN = Pattern.compile("<([a-z]+)*>.*?</\\1>", Pattern.DOTALL);
-    // Tags whose contents are still checked by linters
-    private static final Set<String> CHECKED_TAGS = Set.of(
-            "BLOCKQUOTE",
-            "BR",
-            "CAPTION",
-            "CENTER",
-            "DD",
-            "FIGCAPTION",
-            "H1",
-            "H2",
-            "H3",
-            "H4",
-            "H5",
-            "H6",
-            "HTML",
-            "I",
-            "LI",
-            "META",
-            "P",
-            "SECTION",
-            "SMALL",
-            "SPAN",
-            "STRIKE",
-            "STRONG",
-            "TITLE",
-            "TT",
-            "U",
-            "UL");
+    // Separates texts checked together. Interpreted as a paragraph break, so each text starts a new sentence.
+    private static final String BATCH_SEPARATOR = "\n\n";
+
     private LanguageCheckingUtils() { /* Utility Class */ }
 
     /**
@@ -60,60 +32,206 @@ final class LanguageCheckingUtils {
      * @return list of all matched rules
      */
     static List<RuleMatch> getMatches(JLanguageTool tool, String text) {
+        return getMatches(tool, text, Metrics.NONE);
+    }
+
+    /**
+     * Get all potential problems matched by a rule
+     *
+     * @param tool LanguageTool instance
+     * @param text Text to check
+     * @param metrics Records the time spent annotating and checking the text
+     * @return list of all matched rules
+     */
+    static List<RuleMatch> getMatches(JLanguageTool tool, String text, Metrics metrics) {
+        var start = metrics.start();
+        var annotated = annotateText(text);
+        start = metrics.record(Metrics.Phase.ANNOTATE, start);
         try {
-            return tool.check(annotateText(text));
+            var matches = tool.check(annotated);
+            metrics.record(Metrics.Phase.CHECK, start);
+            return matches;
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
-    private static AnnotatedText annotateText(String text) {
-        var builder = new AnnotatedTextBuilder();
-        annotateText(text, builder);
-        return builder.build();
+    /**
+     * Get all potential problems matched by a rule, detached from the rules that found them.
+     *
+     * @param tool LanguageTool instance
+     * @param text Text to check
+     * @param suggestions Computes the suggested replacements to keep per match
+     * @return list of all matches
+     */
+    static List<TextMatch> getTextMatches(JLanguageTool tool, String text, Suggestions suggestions) {
+        return getTextMatches(tool, text, suggestions, Metrics.NONE);
     }
 
-    // TODO: also check {```} markdown blocks
-    private static void annotateText(String text, AnnotatedTextBuilder builder) {
-        // Split out any HTML-tag wrapped sections
-        Matcher matcher = TAG_PATTERN.matcher(text);
-        int lastMatchPos = 0;
-        while (matcher.find()) {
-            // add all plain text contents up to the match
-            builder.addText(text.substring(lastMatchPos, matcher.start()));
+    /**
+     * Get all potential problems matched by a rule, detached from the rules that found them.
+     *
+     * @param tool LanguageTool instance
+     * @param text Text to check
+     * @param suggestions Computes the suggested replacements to keep per match
+     * @param metrics Records the time spent in each phase and the matches of each rule
+     * @return list of all matches
+     */
+    static List<TextMatch> getTextMatches(JLanguageTool tool, String text, Suggestions suggestions, Metrics metrics) {
+        List<TextMatch> matches = new ArrayList<>();
+        for (var match : getMatches(tool, text, metrics)) {
+            metrics.ruleMatch(match.getRule().getId());
+            var start = metrics.start();
+            var replacements = suggestions.of(match, text);
+            metrics.record(Metrics.Phase.SUGGESTIONS, start);
+            matches.add(TextMatch.of(match, replacements));
+        }
+        return matches;
+    }
 
-            // Check inner text if the tag is supported for checking. Otherwise,
-            // treat full tag as markdown.
-            var htmlTag = matcher.group(1);
-            if (CHECKED_TAGS.contains(htmlTag.toUpperCase())) {
-                builder.addMarkup("<" + htmlTag + ">");
-                var offsetForTagStart = 2 + htmlTag.length();
-                var tagContents = text.substring(matcher.start() + offsetForTagStart, matcher.end());
-                // Check nested text for additional tags.
-                annotateText(tagContents, builder);
-            } else {
-                builder.addMarkup(text.substring(matcher.start(), matcher.end()));
+    /**
+     * Get all potential problems matched by a rule, checking long texts in chunks until a deadline.
+     *
+     * @param tool LanguageTool instance
+     * @param text Text to check
+     * @param suggestions Computes the suggested replacements to keep per match
+     * @param metrics Records the time spent in each phase and the matches of each rule
+     * @param maxChunkChars Maximum length of each chunk, or zero to check the text at once
+     * @param deadline Value of {@link System#nanoTime()} after which no chunk is started
+     * @param sentences Cache of the matches of each sentence, or {@link SentenceCache.Scope#NONE}
+     * @return matches of every checked chunk, with offsets into the text
+     */
+    static TextChunks.Result<TextMatch> getTextMatches(
+            JLanguageTool tool,
+            String text,
+            Suggestions suggestions,
+            Metrics metrics,
+            int maxChunkChars,
+            long deadline,
+            SentenceCache.Scope sentences
+    ) {
+        return TextChunks.check(text, maxChunkChars, deadline, (chunk, offset) -> {
+            List<TextMatch> matches = new ArrayList<>();
+            for (var match : sentences.check(chunk,
+                    metrics,
+                    sentence -> getTextMatches(tool, sentence, suggestions, metrics),
+                    TextMatch::shifted)) {
+                matches.add(match.shifted(offset));
             }
-            lastMatchPos = matcher.end();
+            return matches;
+        });
+    }
+
+    /**
+     * Get the matches of several texts with a single check, detached from the rules that found them.
+     * <p>
+     * The texts are joined into one annotated text, separated by markup that reads as a
+     * paragraph break, so no sentence spans two texts. Rules that look at single words
+     * or sentences, such as spellcheck rules, find the same matches as when checking
+     * each text on its own. Rules that look across sentences may not.
+     *
+     * @param tool LanguageTool instance
+     * @param texts Texts to check
+     * @param suggestions Computes the suggested replacements to keep per match
+     * @param metrics Records the time spent in each phase and the matches of each rule
+     * @return matches of each text, in the order of the texts, with offsets into their text
+     */
+    static List<List<TextMatch>> getBatchTextMatches(
+            JLanguageTool tool,
+            List<String> texts,
+            Suggestions suggestions,
+            Metrics metrics
+    ) {
+        var start = metrics.start();
+        var starts = new int[texts.size()];
+        var combined = new StringBuilder();
+        var builder = new AnnotatedTextBuilder();
+        for (int i = 0; i < texts.size(); i++) {
+            if (i > 0) {
+                builder.addMarkup(BATCH_SEPARATOR, BATCH_SEPARATOR);
+                combined.append(BATCH_SEPARATOR);
+            }
+            starts[i] = combined.length();
+            MarkupScanner.annotate(texts.get(i), builder);
+            combined.append(texts.get(i));
         }
-        // Write out all remaining
-        builder.addText(text.substring(lastMatchPos));
+        var annotated = builder.build();
+        start = metrics.record(Metrics.Phase.ANNOTATE, start);
+        List<RuleMatch> ruleMatches;
+        try {
+            ruleMatches = tool.check(annotated);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        metrics.record(Metrics.Phase.CHECK, start);
+
+        var text = combined.toString();
+        List<List<TextMatch>> matches = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            matches.add(new ArrayList<>());
+        }
+        for (var match : ruleMatches) {
+            var index = Arrays.binarySearch(starts, match.getFromPos());
+            if (index < 0) {
+                index = -index - 2;
+            }
+            metrics.ruleMatch(match.getRule().getId());
+            var suggestionStart = metrics.start();
+            var replacements = suggestions.of(match, text);
+            metrics.record(Metrics.Phase.SUGGESTIONS, suggestionStart);
+            matches.get(index).add(TextMatch.of(match, replacements).shifted(-starts[index]));
+        }
+        return matches;
+    }
+
+    static AnnotatedText annotateText(String text) {
+        return MarkupScanner.annotate(text);
     }
 
     /**
      * Disables all non-spellcheck rules and sets any ignored tokens.
      *
      * @param ignored - Tokens to ignore when spell checking
+     * @param patterns - Patterns of tokens to ignore when spell checking
+     * @param dictionaries - Compiled dictionaries of words to accept when spell checking
      */
-    static void configureSpellcheck(JLanguageTool tool, List<String> ignored) {
+    static void configureSpellcheck(
+            JLanguageTool tool,
+            List<String> ignored,
+            IgnorePatterns patterns,
+            List<CompiledDictionary> dictionaries
+    ) {
+        configureIgnores(tool, ignored, patterns, dictionaries);
         for (var rule : tool.getAllActiveRules()) {
-            if (rule instanceof SpellingCheckRule scr) {
-                scr.addIgnoreTokens(ignored);
-            } else {
+            if (!(rule instanceof SpellingCheckRule)) {
                 // Deactivate any non-spellcheck rules
                 tool.disableRule(rule.getId());
             }
         }
     }
 
+    /**
+     * Sets ignored tokens on all spellcheck rules, leaving other rules untouched.
+     *
+     * @param ignored - Tokens to ignore when spell checking
+     * @param patterns - Patterns of tokens to ignore when spell checking
+     * @param dictionaries - Compiled dictionaries of words to accept when spell checking
+     */
+    static void configureIgnores(
+            JLanguageTool tool,
+            List<String> ignored,
+            IgnorePatterns patterns,
+            List<CompiledDictionary> dictionaries
+    ) {
+        for (var rule : tool.getAllActiveRules()) {
+            if (rule instanceof SpellingCheckRule scr) {
+                scr.addIgnoreTokens(ignored);
+                if (scr instanceof CodingSpellerRule csr) {
+                    csr.setIgnorePatterns(patterns);
+                    csr.setDictionaries(dictionaries);
+                }
+            }
+        }
+    }
+
 }
@@ -25,6 +25,18 @@ public interface LanguageService {
      */
     Language create();
 
+    /**
+     * Instantiate a language for tools that only check spelling.
+     * <p>
+     * Implementations can skip creating grammar rules and parsing rule files,
+     * which tools that only check spelling disable anyway.
+     *
+     * @return Instantiated language. Defaults to {@link #create()}.
+     */
+    default Language createSpellingOnly() {
+        return create();
+    }
+
     /**
      * Get a language tool instance for the given language.
      *
@@ -32,6 +44,20 @@ public interface LanguageService {
      * @return instantiated {@link JLanguageTool}.
      */
     static Language load(String code, ClassLoader loader) {
+        return find(code, loader).create();
+    }
+
+    /**
+     * Get a language for tools that only check spelling.
+     *
+     * @param code language code to get instance for.
+     * @return language instantiated with {@link #createSpellingOnly()}.
+     */
+    static Language loadSpellingOnly(String code, ClassLoader loader) {
+        return find(code, loader).createSpellingOnly();
+    }
+
+    private static LanguageService find(String code, ClassLoader loader) {
         return ServiceLoader.load(LanguageService.class, loader)
                 .stream()
                 .map(ServiceLoader.Provider::get)
@@ -40,7 +66,6 @@ public interface LanguageService {
                     throw new RuntimeException("Expected only one implementation for Lanuage " + code
                             + " but found multiple");
                 })
-                .map(LanguageService::create)
                 .orElseThrow(() -> new RuntimeException("Expected language provider for code: " + code));
     }
 
@@ -50,10 +75,20 @@ public interface LanguageService {
     abstract class Provider implements LanguageService {
         private final String languageCode;
         private final Supplier<? extends Language> supplier;
+        private final Supplier<? extends Language> spellingSupplier;
 
         public Provider(String languageCode, Supplier<? extends Language> supplier) {
+            this(languageCode, supplier, supplier);
+        }
+
+        public Provider(
+                String languageCode,
+                Supplier<? extends Language> supplier,
+                Supplier<? extends Language> spellingSupplier
+        ) {
             this.languageCode = languageCode;
             this.supplier = supplier;
+            this.spellingSupplier = spellingSupplier;
         }
 
         @Override
@@ -65,5 +100,10 @@ public interface LanguageService {
         public final Language create() {
             return this.supplier.get();
         }
+
+        @Override
+        public final Language createSpellingOnly() {
+            return this.spellingSupplier.get();
+        }
     }
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+
+/**
+ * Process-wide pool of configured {@link JLanguageTool} instances.
+ * <p>
+ * Building a tool loads dictionaries and parses rule files, so tools are
+ * shared between all validators with the same {@link ToolSpec}. A
+ * {@link JLanguageTool} is not thread-safe, so each tool is leased to one
+ * caller at a time and returned to the pool when the {@link Lease} is closed.
+ * <p>
+ * Tools are only created when first leased, unless {@link #warmUp} creates one
+ * ahead of time on a background thread.
+ * <p>
+ * Tools that sit idle for longer than the idle timeout are dropped, along with
+ * any {@link Language} that no longer backs a pooled or leased tool. With a
+ * zero idle timeout, tools are dropped as soon as they are released.
+ */
+final class LanguageToolPool implements AutoCloseable {
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+    // Idle tools are swept at half the idle timeout, but never more often than this.
+    private static final long MIN_SWEEP_PERIOD_NANOS = Duration.ofSeconds(1).toNanos();
+    private static final LanguageToolPool SHARED = new LanguageToolPool(DEFAULT_IDLE_TIMEOUT);
+    // Checked once on every new tool so lazily loaded resources are ready before the first real check.
+    private static final String WARM_UP_TEXT = "Warm up the tool.";
+
+    private final long idleTimeoutNanos;
+    private final Map<ToolSpec, Deque<Idle>> idle = new HashMap<>();
+    private final Map<ToolSpec, Integer> leased = new HashMap<>();
+    private final Map<LanguageKey, Language> languages = new HashMap<>();
+    private final Map<ToolSpec, Future<?>> warming = new HashMap<>();
+    private ScheduledExecutorService sweeper;
+    private ExecutorService warmer;
+    private boolean closed;
+
+    LanguageToolPool(Duration idleTimeout) {
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    /**
+     * @return pool shared by all validators in this process.
+     */
+    static LanguageToolPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Create a tool for the given spec on a background thread, so that it is ready
+     * when first leased. Does nothing if the pool already has a tool for the spec.
+     * <p>
+     * The background thread is a daemon, so warming up never delays the exit of
+     * the process.
+     *
+     * @param spec configuration of the tool to create.
+     */
+    synchronized void warmUp(ToolSpec spec) {
+        if (closed || warming.containsKey(spec) || idle.containsKey(spec) || leased.containsKey(spec)) {
+            return;
+        }
+        if (warmer == null) {
+            warmer = Executors.newSingleThreadExecutor(r -> {
+                var thread = new Thread(r, "flux-language-tool-warm-up");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        warming.put(spec, warmer.submit(() -> {
+            try {
+                lease(spec).close();
+            } finally {
+                synchronized (this) {
+                    warming.remove(spec);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Lease a tool for the given spec, creating one if none is idle.
+     * <p>
+     * If a tool for the spec is being warmed up, waits for it instead.
+     *
+     * @param spec configuration of the tool to lease.
+     * @return lease that must be closed to return the tool to the pool.
+     */
+    Lease acquire(ToolSpec spec) {
+        Future<?> pending;
+        synchronized (this) {
+            pending = warming.get(spec);
+        }
+        if (pending != null) {
+            try {
+                pending.get();
+            } catch (InterruptedException exc) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for a LanguageTool instance", exc);
+            } catch (ExecutionException exc) {
+                // Creating the tool again below reports the failure to this caller.
+            } catch (CancellationException exc) {
+                // The pool was closed before the tool was warmed up.
+            }
+        }
+        return lease(spec);
+    }
+
+    private Lease lease(ToolSpec spec) {
+        Language language;
+        synchronized (this) {
+            var available = idle.get(spec);
+            if (available != null && !available.isEmpty()) {
+                leased.merge(spec, 1, Integer::sum);
+                return new Lease(spec, available.pop().tool());
+            }
+            language = languages.computeIfAbsent(LanguageKey.of(spec), LanguageToolPool::loadLanguage);
+            leased.merge(spec, 1, Integer::sum);
+        }
+        var event = new ToolCreationEvent();
+        event.begin();
+        try {
+            var tool = spec.create(language);
+            LanguageCheckingUtils.getMatches(tool, WARM_UP_TEXT);
+            event.language = spec.languageCode();
+            event.mode = spec.mode().name();
+            event.commit();
+            return new Lease(spec, tool);
+        } catch (RuntimeException exc) {
+            synchronized (this) {
+                leased.computeIfPresent(spec, (k, v) -> v == 1 ? null : v - 1);
+            }
+            throw exc;
+        }
+    }
+
+    private synchronized void release(ToolSpec spec, JLanguageTool tool) {
+        leased.computeIfPresent(spec, (k, v) -> v == 1 ? null : v - 1);
+        if (closed || idleTimeoutNanos == 0) {
+            // Drop the tool, and its language if no other tool uses it, rather than sweeping for it.
+            evictIdle();
+            return;
+        }
+        idle.computeIfAbsent(spec, k -> new ArrayDeque<>()).push(new Idle(tool, System.nanoTime()));
+        if (sweeper == null) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                var thread = new Thread(r, "flux-language-tool-pool");
+                thread.setDaemon(true);
+                return thread;
+            });
+            var period = Math.max(idleTimeoutNanos / 2, MIN_SWEEP_PERIOD_NANOS);
+            sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stop the background threads of the pool and drop its idle tools.
+     * <p>
+     * Tools leased before closing can still be used, and are dropped when
+     * released. Tools that were still to be warmed up are not created.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (var pending : warming.values()) {
+            pending.cancel(false);
+        }
+        warming.clear();
+        if (warmer != null) {
+            warmer.shutdown();
+        }
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        idle.clear();
+        evictIdle();
+    }
+
+    /**
+     * Drop all tools that have been idle for longer than the idle timeout.
+     */
+    synchronized void evictIdle() {
+        var now = System.nanoTime();
+        var entries = idle.entrySet().iterator();
+        while (entries.hasNext()) {
+            var tools = entries.next().getValue();
+            // Tools are pushed on release, so the oldest are at the tail.
+            while (!tools.isEmpty() && now - tools.peekLast().since() > idleTimeoutNanos) {
+                tools.removeLast();
+            }
+            if (tools.isEmpty()) {
+                entries.remove();
+            }
+        }
+        Iterator<LanguageKey> keys = languages.keySet().iterator();
+        while (keys.hasNext()) {
+            var key = keys.next();
+            if (idle.keySet().stream().noneMatch(s -> LanguageKey.of(s).equals(key))
+                    && leased.keySet().stream().noneMatch(s -> LanguageKey.of(s).equals(key))) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Load the language that tools for a spec are built over.
+     *
+     * @param spec configuration of the tools.
+     * @return new language instance.
+     */
+    static Language loadLanguage(ToolSpec spec) {
+        return loadLanguage(LanguageKey.of(spec));
+    }
+
+    private static Language loadLanguage(LanguageKey key) {
+        var loader = LanguageToolPool.class.getClassLoader();
+        if (key.spellingOnly()) {
+            return LanguageService.loadSpellingOnly(key.languageCode(), loader);
+        }
+        var language = LanguageService.load(key.languageCode(), loader);
+        // The built-in English can skip loading rules that are not selected. Other
+        // languages load all rules, and unselected rules are disabled on each tool.
+        if (language instanceof CodingEnglish && !key.rules().equals(RuleSelection.DEFAULT)) {
+            return new CodingEnglish(key.rules());
+        }
+        return language;
+    }
+
+    /**
+     * @return number of tools currently idle in the pool.
+     */
+    synchronized int idleCount() {
+        return idle.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    private record Idle(JLanguageTool tool, long since) {}
+
+    // Languages hold their loaded rules, so they are shared by specs selecting the same rules.
+    // Spelling tools get a language of their own that loads no grammar rules at all.
+    private record LanguageKey(String languageCode, RuleSelection rules, boolean spellingOnly) {
+        static LanguageKey of(ToolSpec spec) {
+            return new LanguageKey(spec.languageCode(), spec.rules(), spec.mode() == ToolSpec.Mode.SPELLING);
+        }
+    }
+
+    /**
+     * Exclusive use of a pooled tool.
+     */
+    final class Lease implements AutoCloseable {
+        private final ToolSpec spec;
+        private JLanguageTool tool;
+
+        private Lease(ToolSpec spec, JLanguageTool tool) {
+            this.spec = spec;
+            this.tool = tool;
+        }
+
+        JLanguageTool tool() {
+            if (tool == null) {
+                throw new IllegalStateException("Lease for " + spec + " was already closed");
+            }
+            return tool;
+        }
+
+        @Override
+        public void close() {
+            if (tool != null) {
+                release(spec, tool);
+                tool = null;
+            }
+        }
+    }
+}
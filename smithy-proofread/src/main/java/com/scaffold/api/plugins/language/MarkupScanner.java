@@ -0,0 +1,396 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.languagetool.markup.AnnotatedText;
+import org.languagetool.markup.AnnotatedTextBuilder;
+
+/**
+ * Single-pass scanner that separates prose from markup in docstrings.
+ * <p>
+ * The following are reported as markup, so they are never checked:
+ * <ul>
+ *     <li>HTML tags. Elements whose tag is in {@link #CHECKED_TAGS} only hide
+ *     their tags, other elements are hidden up to their closing tag. Tags
+ *     without a closing tag are hidden on their own.</li>
+ *     <li>Fenced code blocks, opened by three or more backticks or tildes at
+ *     the start of a line and closed by a matching fence or the end of the text.</li>
+ *     <li>Inline code spans delimited by equal runs of backticks.</li>
+ *     <li>Autolinks ({@code <https://...>}), and the brackets and target of
+ *     Markdown links ({@code [text](target)}), whose text is still checked.</li>
+ * </ul>
+ * Closing tags are indexed by name in a single pass, and every other search
+ * that fails is remembered, so the scan stays linear in the length of the
+ * text, up to a logarithmic lookup per element, even for unbalanced markup.
+ */
+final class MarkupScanner {
+    // Tags whose contents are still checked by linters
+    private static final Set<String> CHECKED_TAGS = Set.of(
+            "A",
+            "BLOCKQUOTE",
+            "BR",
+            "CAPTION",
+            "CENTER",
+            "DD",
+            "FIGCAPTION",
+            "H1",
+            "H2",
+            "H3",
+            "H4",
+            "H5",
+            "H6",
+            "HTML",
+            "I",
+            "LI",
+            "META",
+            "P",
+            "SECTION",
+            "SMALL",
+            "SPAN",
+            "STRIKE",
+            "STRONG",
+            "TITLE",
+            "TT",
+            "U",
+            "UL");
+    // Inline code and skipped elements are read as a single word, so the
+    // surrounding sentence stays well-formed.
+    private static final String CODE_PLACEHOLDER = "Code";
+    private static final int NOT_SEARCHED = -2;
+    private static final int MAX_TRACKED_TICKS = 16;
+
+    private final String text;
+    private final int length;
+    private final Sink sink;
+    private int textStart;
+
+    // Cached results of forward searches. -1 means there is no later occurrence.
+    private int nextGt = NOT_SEARCHED;
+    private int nextLt = NOT_SEARCHED;
+    private int nextOpenBracket = NOT_SEARCHED;
+    private int nextCloseBracket = NOT_SEARCHED;
+    // Closing tags by lower-case tag name, indexed on the first search for one.
+    private Map<String, CloseTags> closeTags;
+    // Position after which no closing run of backticks exists, by run length.
+    private final int[] missingTicks = new int[MAX_TRACKED_TICKS];
+    // Position of the `]` that ends the text of an open Markdown link.
+    private int linkClose = -1;
+
+    /**
+     * Receives consecutive, non-empty segments of the scanned text.
+     */
+    interface Sink {
+        /**
+         * @param start start of a prose segment, inclusive.
+         * @param end end of the segment, exclusive.
+         */
+        void text(int start, int end);
+
+        /**
+         * @param start start of a markup segment, inclusive.
+         * @param end end of the segment, exclusive.
+         * @param interpretAs text checkers should read in place of the markup, or null to drop it.
+         */
+        void markup(int start, int end, String interpretAs);
+    }
+
+    private MarkupScanner(String text, Sink sink) {
+        this.text = text;
+        this.length = text.length();
+        this.sink = sink;
+        Arrays.fill(missingTicks, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Scan a text.
+     *
+     * @param text text to scan.
+     * @param sink receives the segments of the text, in order.
+     */
+    static void scan(String text, Sink sink) {
+        new MarkupScanner(text, sink).scan();
+    }
+
+    /**
+     * Convert a docstring into text annotated with its markup.
+     *
+     * @param text text to annotate.
+     * @return annotated text.
+     */
+    static AnnotatedText annotate(String text) {
+        var builder = new AnnotatedTextBuilder();
+        annotate(text, builder);
+        return builder.build();
+    }
+
+    /**
+     * Append a docstring and its markup to annotated text.
+     *
+     * @param text text to annotate.
+     * @param builder builder to append the annotated text to.
+     */
+    static void annotate(String text, AnnotatedTextBuilder builder) {
+        scan(text, new Sink() {
+            @Override
+            public void text(int start, int end) {
+                builder.addText(text.substring(start, end));
+            }
+
+            @Override
+            public void markup(int start, int end, String interpretAs) {
+                if (interpretAs == null) {
+                    builder.addMarkup(text.substring(start, end));
+                } else {
+                    builder.addMarkup(text.substring(start, end), interpretAs);
+                }
+            }
+        });
+    }
+
+    private void scan() {
+        int pos = 0;
+        while (pos < length) {
+            var c = text.charAt(pos);
+            int next = switch (c) {
+                case '<' -> tag(pos);
+                case '`' -> isLineStart(pos) ? fence(pos, c) : codeSpan(pos);
+                case '~' -> isLineStart(pos) ? fence(pos, c) : -1;
+                case '[' -> linkStart(pos);
+                case ']' -> pos == linkClose ? linkEnd(pos) : -1;
+                default -> -1;
+            };
+            pos = next < 0 ? pos + 1 : next;
+        }
+        if (textStart < length) {
+            sink.text(textStart, length);
+        }
+    }
+
+    private int markup(int start, int end, String interpretAs) {
+        if (textStart < start) {
+            sink.text(textStart, start);
+        }
+        sink.markup(start, end, interpretAs);
+        textStart = end;
+        return end;
+    }
+
+    private int tag(int pos) {
+        int i = pos + 1;
+        var closing = i < length && text.charAt(i) == '/';
+        if (closing) {
+            i++;
+        }
+        if (i >= length || !isAsciiLetter(text.charAt(i))) {
+            return -1;
+        }
+        int nameStart = i;
+        while (i < length && (isAsciiLetter(text.charAt(i)) || isAsciiDigit(text.charAt(i)) || text.charAt(i) == '-')) {
+            i++;
+        }
+        nextGt = find('>', i, nextGt);
+        nextLt = find('<', i, nextLt);
+        if (nextGt < 0 || (nextLt >= 0 && nextLt < nextGt)) {
+            return -1;
+        }
+        int tagEnd = nextGt + 1;
+        var after = text.charAt(i);
+        if (!closing && after == ':') {
+            // Autolink such as <https://example.com>, read as the bare link
+            return markup(pos, tagEnd, text.substring(pos + 1, nextGt));
+        }
+        if (after != '>' && after != '/' && !Character.isWhitespace(after)) {
+            return -1;
+        }
+        var name = text.substring(nameStart, i).toUpperCase(Locale.ENGLISH);
+        if (closing || text.charAt(nextGt - 1) == '/' || CHECKED_TAGS.contains(name)) {
+            return markup(pos, tagEnd, null);
+        }
+        int closeEnd = findCloseTag(name.toLowerCase(Locale.ENGLISH), tagEnd);
+        if (closeEnd < 0) {
+            return markup(pos, tagEnd, null);
+        }
+        return markup(pos, closeEnd, CODE_PLACEHOLDER);
+    }
+
+    // Returns the end of the first `</name>` at or after `from`, or -1.
+    private int findCloseTag(String name, int from) {
+        if (closeTags == null) {
+            closeTags = indexCloseTags();
+        }
+        var tags = closeTags.get(name);
+        return tags == null ? -1 : tags.endAfter(from);
+    }
+
+    // Finds every `</name>` in one pass, so that texts with many distinct unclosed tags are not searched again
+    // for each of them.
+    private Map<String, CloseTags> indexCloseTags() {
+        Map<String, CloseTags> index = new HashMap<>();
+        int i = 0;
+        while ((i = text.indexOf("</", i)) >= 0) {
+            int nameStart = i + 2;
+            int j = nameStart;
+            if (j < length && isAsciiLetter(text.charAt(j))) {
+                while (j < length && (isAsciiLetter(text.charAt(j)) || isAsciiDigit(text.charAt(j))
+                        || text.charAt(j) == '-')) {
+                    j++;
+                }
+                int nameEnd = j;
+                while (j < length && Character.isWhitespace(text.charAt(j))) {
+                    j++;
+                }
+                if (j < length && text.charAt(j) == '>') {
+                    var name = text.substring(nameStart, nameEnd).toLowerCase(Locale.ENGLISH);
+                    index.computeIfAbsent(name, n -> new CloseTags()).add(i, j + 1);
+                }
+            }
+            i += 2;
+        }
+        return index;
+    }
+
+    // Start and end offsets of the closing tags of one name, in text order.
+    private static final class CloseTags {
+        private int[] starts = new int[4];
+        private int[] ends = new int[4];
+        private int size;
+
+        void add(int start, int end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+        }
+
+        // Returns the end of the first closing tag starting at or after `from`, or -1.
+        int endAfter(int from) {
+            int i = Arrays.binarySearch(starts, 0, size, from);
+            if (i < 0) {
+                i = -i - 1;
+            }
+            return i < size ? ends[i] : -1;
+        }
+    }
+
+    private int fence(int pos, char c) {
+        int run = runLength(pos, c);
+        if (run < 3) {
+            return c == '`' ? codeSpan(pos) : -1;
+        }
+        int lineEnd = lineEnd(pos);
+        while (lineEnd < length) {
+            int lineStart = lineEnd + 1;
+            int i = lineStart;
+            while (i < length && i - lineStart < 3 && text.charAt(i) == ' ') {
+                i++;
+            }
+            int closingRun = runLength(i, c);
+            lineEnd = lineEnd(lineStart);
+            if (closingRun >= run && text.substring(i + closingRun, lineEnd).isBlank()) {
+                return markup(pos, lineEnd, null);
+            }
+        }
+        // Unclosed fences run to the end of the text.
+        return markup(pos, length, null);
+    }
+
+    private int codeSpan(int pos) {
+        int run = runLength(pos, '`');
+        int tracked = Math.min(run, MAX_TRACKED_TICKS) - 1;
+        if (run <= MAX_TRACKED_TICKS && pos >= missingTicks[tracked]) {
+            return pos + run;
+        }
+        int i = pos + run;
+        while ((i = text.indexOf('`', i)) >= 0) {
+            int closingRun = runLength(i, '`');
+            if (closingRun == run) {
+                return markup(pos, i + run, CODE_PLACEHOLDER);
+            }
+            i += closingRun;
+        }
+        if (run <= MAX_TRACKED_TICKS) {
+            missingTicks[tracked] = pos;
+        }
+        // Unmatched backticks are plain text.
+        return pos + run;
+    }
+
+    private int linkStart(int pos) {
+        nextCloseBracket = find(']', pos + 1, nextCloseBracket);
+        nextOpenBracket = find('[', pos + 1, nextOpenBracket);
+        int close = nextCloseBracket;
+        if (close < 0 || (nextOpenBracket >= 0 && nextOpenBracket < close) || targetEnd(close) < 0) {
+            return -1;
+        }
+        linkClose = close;
+        return markup(pos, pos + 1, null);
+    }
+
+    private int linkEnd(int pos) {
+        linkClose = -1;
+        return markup(pos, targetEnd(pos), null);
+    }
+
+    // End of a `](target)` starting at `close`, or -1 if there is no target.
+    // Targets cannot contain brackets, which keeps each search within one link.
+    private int targetEnd(int close) {
+        if (close + 1 >= length || text.charAt(close + 1) != '(') {
+            return -1;
+        }
+        for (int i = close + 2; i < length; i++) {
+            var c = text.charAt(i);
+            if (c == ')') {
+                return i + 1;
+            } else if (c == '(' || c == '[' || c == ']' || Character.isWhitespace(c)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private int find(char c, int from, int cached) {
+        if (cached == -1 || cached >= from) {
+            return cached;
+        }
+        return text.indexOf(c, from);
+    }
+
+    private boolean isLineStart(int pos) {
+        int i = pos;
+        while (i > 0 && pos - i < 3 && text.charAt(i - 1) == ' ') {
+            i--;
+        }
+        return i == 0 || text.charAt(i - 1) == '\n';
+    }
+
+    private int lineEnd(int pos) {
+        int end = text.indexOf('\n', pos);
+        return end < 0 ? length : end;
+    }
+
+    private int runLength(int pos, char c) {
+        int i = pos;
+        while (i < length && text.charAt(i) == c) {
+            i++;
+        }
+        return i - pos;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.logging.Logger;
+import software.amazon.smithy.model.knowledge.TextInstance;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+
+/**
+ * Opt-in measurements of a single validator run.
+ * <p>
+ * Records the time spent in each {@link Phase}, the number of matches of each
+ * rule, and the slowest texts. When disabled, only the JFR events emitted by
+ * {@link #timeText} and {@link #timeBatch} remain, and those cost nothing
+ * unless a recording enables them.
+ * <p>
+ * LanguageTool does not report the time each rule takes, so rules are only
+ * measured by their number of matches. Within a text, phases are measured on
+ * the thread that checks it, so phase times add up to CPU time across worker
+ * threads rather than to wall-clock time.
+ */
+final class Metrics {
+    private static final Logger LOGGER = Logger.getLogger(Metrics.class.getName());
+    static final Metrics NONE = new Metrics("", false, 0);
+
+    /**
+     * Measured phases of a validator run.
+     */
+    enum Phase {
+        /** Leasing tools from the pool, including creating and warming up new tools. */
+        TOOL_LEASE("toolLease"),
+        /** Collecting the texts of the model with {@code TextIndex}. */
+        TEXT_INDEX("textIndex"),
+        /** Separating prose from markup. */
+        ANNOTATE("annotate"),
+        /** Running LanguageTool rules. */
+        CHECK("check"),
+        /** Computing suggested replacements for typos. */
+        SUGGESTIONS("suggestions");
+
+        private final String key;
+
+        Phase(String key) {
+            this.key = key;
+        }
+    }
+
+    private record TextTiming(String shape, String location, int length, long nanos) {}
+
+    private final String validator;
+    private final boolean enabled;
+    private final int slowestCount;
+    private final Map<Phase, LongAdder> phaseNanos = new EnumMap<>(Phase.class);
+    private final Map<Phase, LongAdder> phaseCounts = new EnumMap<>(Phase.class);
+    private final Map<String, LongAdder> ruleMatches = new ConcurrentHashMap<>();
+    private final Map<TextFilter.Reason, LongAdder> skippedTexts = new ConcurrentHashMap<>();
+    private final LongAdder texts = new LongAdder();
+    private final LongAdder sentenceHits = new LongAdder();
+    private final LongAdder sentenceMisses = new LongAdder();
+    private volatile SentenceCache sentenceCache;
+    // Min-heap holding the slowest texts, so the fastest of them is evicted first.
+    private final PriorityQueue<TextTiming> slowest = new PriorityQueue<>(Comparator.comparingLong(TextTiming::nanos));
+
+    /**
+     * @param validator name of the measured validator.
+     * @param enabled whether to record measurements.
+     * @param slowestCount number of slowest texts to keep.
+     */
+    Metrics(String validator, boolean enabled, int slowestCount) {
+        this.validator = validator;
+        this.enabled = enabled;
+        this.slowestCount = slowestCount;
+        for (var phase : Phase.values()) {
+            phaseNanos.put(phase, new LongAdder());
+            phaseCounts.put(phase, new LongAdder());
+        }
+    }
+
+    boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * @return start time of a phase, or zero if disabled.
+     */
+    long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record the end of a phase.
+     *
+     * @param phase phase that ended.
+     * @param start start time returned by {@link #start()} or by a previous call to this method.
+     * @return end time of the phase, to use as the start of the next phase.
+     */
+    long record(Phase phase, long start) {
+        if (!enabled) {
+            return 0;
+        }
+        var end = System.nanoTime();
+        phaseNanos.get(phase).add(end - start);
+        phaseCounts.get(phase).increment();
+        return end;
+    }
+
+    <T> T time(Phase phase, Supplier<T> action) {
+        var start = start();
+        var result = action.get();
+        record(phase, start);
+        return result;
+    }
+
+    void ruleMatch(String ruleId) {
+        if (enabled) {
+            ruleMatches.computeIfAbsent(ruleId, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Record a text that was skipped without being checked.
+     *
+     * @param reason why the text was skipped.
+     */
+    void skippedText(TextFilter.Reason reason) {
+        if (enabled) {
+            skippedTexts.computeIfAbsent(reason, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Report the sentence cache used by this run, to include its size in the measurements.
+     *
+     * @param cache sentence cache used by this run.
+     */
+    void observe(SentenceCache cache) {
+        this.sentenceCache = cache;
+    }
+
+    /**
+     * Record a lookup in the sentence cache.
+     *
+     * @param hit whether the sentence was cached.
+     */
+    void sentenceLookup(boolean hit) {
+        if (enabled) {
+            (hit ? sentenceHits : sentenceMisses).increment();
+        }
+    }
+
+    /**
+     * Check a single text, emitting a JFR event and recording its duration.
+     *
+     * @param text text being checked.
+     * @param check check to run on the text.
+     * @return result of the check.
+     */
+    <R> List<R> timeText(TextInstance text, Supplier<List<R>> check) {
+        return timeText(text, check, List::size);
+    }
+
+    /**
+     * Check a single text, emitting a JFR event and recording its duration.
+     *
+     * @param text text being checked.
+     * @param check check to run on the text.
+     * @param results counts the results reported for the text.
+     * @return result of the check.
+     */
+    <R> R timeText(TextInstance text, Supplier<R> check, ToIntFunction<R> results) {
+        var event = new TextCheckEvent();
+        event.begin();
+        var start = System.nanoTime();
+        var result = check.get();
+        var nanos = System.nanoTime() - start;
+        event.end();
+        record(text, event, results.applyAsInt(result), 1, nanos);
+        return result;
+    }
+
+    /**
+     * Check texts together, emitting a JFR event and recording a duration for each text.
+     * <p>
+     * Texts checked together cannot be timed alone. The JFR event of each text
+     * covers the whole check, and each text is recorded with a share of its
+     * duration proportional to the length of the text.
+     *
+     * @param batch texts being checked.
+     * @param check check to run on the texts, giving the results of each text.
+     * @return result of the check.
+     */
+    <R> List<Map.Entry<TextInstance, List<R>>> timeBatch(
+            List<TextInstance> batch,
+            Supplier<List<Map.Entry<TextInstance, List<R>>>> check
+    ) {
+        List<TextCheckEvent> events = new ArrayList<>(batch.size());
+        long length = 0;
+        for (var text : batch) {
+            var event = new TextCheckEvent();
+            event.begin();
+            events.add(event);
+            length += text.getText().length();
+        }
+        var start = System.nanoTime();
+        var result = check.get();
+        var nanos = System.nanoTime() - start;
+        for (int i = 0; i < result.size(); i++) {
+            var text = result.get(i).getKey();
+            var event = events.get(i);
+            event.end();
+            var share = length == 0 ? nanos / batch.size() : nanos * text.getText().length() / length;
+            record(text, event, result.get(i).getValue().size(), batch.size(), share);
+        }
+        return result;
+    }
+
+    private void record(TextInstance text, TextCheckEvent event, int results, int batchSize, long nanos) {
+        if (event.shouldCommit()) {
+            event.validator = validator;
+            event.shape = shape(text);
+            event.location = location(text);
+            event.length = text.getText().length();
+            event.results = results;
+            event.batch = batchSize;
+            event.commit();
+        }
+        if (enabled) {
+            texts.increment();
+            var timing = new TextTiming(shape(text), location(text), text.getText().length(), nanos);
+            synchronized (slowest) {
+                slowest.add(timing);
+                if (slowest.size() > slowestCount) {
+                    slowest.poll();
+                }
+            }
+        }
+    }
+
+    private static String shape(TextInstance text) {
+        return text.getShape() == null ? "-" : text.getShape().getId().toString();
+    }
+
+    private static String location(TextInstance text) {
+        return switch (text.getLocationType()) {
+            case APPLIED_TRAIT -> text.getTraitPropertyPath().isEmpty()
+                    ? text.getTrait().toShapeId().toString()
+                    : text.getTrait().toShapeId() + "." + String.join(".", text.getTraitPropertyPath());
+            case NAMESPACE -> "namespace " + text.getText();
+            default -> "shape";
+        };
+    }
+
+    /**
+     * @return the recorded measurements.
+     */
+    Node toNode() {
+        var phases = ObjectNode.builder();
+        for (var phase : Phase.values()) {
+            phases.withMember(phase.key, ObjectNode.builder()
+                    .withMember("millis", millis(phaseNanos.get(phase).sum()))
+                    .withMember("count", phaseCounts.get(phase).sum())
+                    .build());
+        }
+        var rules = ObjectNode.builder();
+        long matches = 0;
+        for (var entry : new TreeMap<>(ruleMatches).entrySet()) {
+            rules.withMember(entry.getKey(), entry.getValue().sum());
+            matches += entry.getValue().sum();
+        }
+        var skipped = ObjectNode.builder();
+        for (var entry : new TreeMap<>(skippedTexts).entrySet()) {
+            skipped.withMember(entry.getKey().key(), entry.getValue().sum());
+        }
+        List<Node> slowestTexts = new ArrayList<>();
+        for (var timing : slowestTexts()) {
+            slowestTexts.add(ObjectNode.builder()
+                    .withMember("shape", timing.shape())
+                    .withMember("location", timing.location())
+                    .withMember("length", timing.length())
+                    .withMember("millis", millis(timing.nanos()))
+                    .build());
+        }
+        var result = ObjectNode.builder()
+                .withMember("validator", validator)
+                .withMember("texts", texts.sum())
+                .withMember("matches", matches)
+                .withMember("phases", phases.build())
+                .withMember("ruleMatches", rules.build())
+                .withMember("skippedTexts", skipped.build())
+                .withMember("slowestTexts", Node.fromNodes(slowestTexts));
+        var cache = sentenceCache;
+        if (cache != null) {
+            var stats = cache.stats();
+            result.withMember("sentenceCache", ObjectNode.builder()
+                    .withMember("hits", sentenceHits.sum())
+                    .withMember("misses", sentenceMisses.sum())
+                    .withMember("entries", stats.entries())
+                    .withMember("evictions", stats.evictions())
+                    .withMember("estimatedBytes", stats.estimatedBytes())
+                    .build());
+        }
+        return result.build();
+    }
+
+    /**
+     * @return a human-readable summary of the recorded measurements.
+     */
+    String summary() {
+        var builder = new StringBuilder(validator).append(" checked ").append(texts.sum()).append(" texts.");
+        for (var phase : Phase.values()) {
+            builder.append(String.format(Locale.ROOT, "%n  %-12s %10.1f ms (%d)",
+                    phase.key,
+                    millis(phaseNanos.get(phase).sum()),
+                    phaseCounts.get(phase).sum()));
+        }
+        for (var entry : new TreeMap<>(ruleMatches).entrySet()) {
+            builder.append(String.format(Locale.ROOT, "%n  rule %s: %d matches",
+                    entry.getKey(),
+                    entry.getValue().sum()));
+        }
+        for (var entry : new TreeMap<>(skippedTexts).entrySet()) {
+            builder.append(String.format(Locale.ROOT, "%n  skipped %s: %d texts",
+                    entry.getKey().key(),
+                    entry.getValue().sum()));
+        }
+        var cache = sentenceCache;
+        if (cache != null) {
+            var stats = cache.stats();
+            builder.append(String.format(Locale.ROOT,
+                    "%n  sentence cache: %d hits, %d misses; %d entries (~%d KiB), %d evictions",
+                    sentenceHits.sum(),
+                    sentenceMisses.sum(),
+                    stats.entries(),
+                    stats.estimatedBytes() / 1024,
+                    stats.evictions()));
+        }
+        for (var timing : slowestTexts()) {
+            builder.append(String.format(Locale.ROOT, "%n  slow text %s (%s, %d chars): %.1f ms",
+                    timing.shape(),
+                    timing.location(),
+                    timing.length(),
+                    millis(timing.nanos())));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Log a summary of the recorded measurements, and write them to a file, if enabled.
+     *
+     * @param file file to write the measurements to as JSON, or null to only log them.
+     */
+    void report(Path file) {
+        if (!enabled) {
+            return;
+        }
+        LOGGER.info(this::summary);
+        if (file != null) {
+            write(file);
+        }
+    }
+
+    /**
+     * Write the recorded measurements as JSON.
+     *
+     * @param file file to write, replaced if it exists.
+     */
+    void write(Path file) {
+        try {
+            var parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, Node.prettyPrintJson(toNode()), StandardCharsets.UTF_8);
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to write " + validator + " metrics to `" + file + "`", exc);
+        }
+    }
+
+    // Slowest first.
+    private List<TextTiming> slowestTexts() {
+        List<TextTiming> result;
+        synchronized (slowest) {
+            result = new ArrayList<>(slowest);
+        }
+        result.sort(Comparator.comparingLong(TextTiming::nanos).reversed());
+        return result;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import org.languagetool.JLanguageTool;
+
+/**
+ * Checks a list of texts, optionally spreading the work over several threads.
+ * <p>
+ * Texts are split into contiguous batches. Each worker thread leases its own
+ * tool from a {@link LanguageToolPool} and pulls batches until none remain.
+ * Results are concatenated in input order, so the output does not depend on
+ * the parallelism or on thread scheduling.
+ */
+final class ParallelTextChecker {
+    // Batches per worker. More batches balance uneven text sizes at the cost of scheduling overhead.
+    private static final int BATCHES_PER_WORKER = 8;
+
+    private ParallelTextChecker() { /* Utility Class */ }
+
+    /**
+     * Apply a check to every text.
+     *
+     * @param texts texts to check.
+     * @param parallelism maximum number of worker threads. Values below two check serially.
+     * @param spec spec of the tools used by the check.
+     * @param check check to apply to a single text using a leased tool.
+     * @return concatenated results of the check, in the order of {@code texts}.
+     */
+    static <T, R> List<R> check(
+            List<T> texts,
+            int parallelism,
+            ToolSpec spec,
+            BiFunction<JLanguageTool, T, List<R>> check
+    ) {
+        return check(texts, parallelism, spec, Metrics.NONE, check);
+    }
+
+    /**
+     * Apply a check to every text, recording the time spent leasing tools.
+     *
+     * @param texts texts to check.
+     * @param parallelism maximum number of worker threads. Values below two check serially.
+     * @param spec spec of the tools used by the check.
+     * @param metrics records the time spent leasing tools.
+     * @param check check to apply to a single text using a leased tool.
+     * @return concatenated results of the check, in the order of {@code texts}.
+     */
+    static <T, R> List<R> check(
+            List<T> texts,
+            int parallelism,
+            ToolSpec spec,
+            Metrics metrics,
+            BiFunction<JLanguageTool, T, List<R>> check
+    ) {
+        return check(texts, parallelism, LanguageToolPool.shared(), spec, metrics, check);
+    }
+
+    private static <T, R> List<R> check(
+            List<T> texts,
+            int parallelism,
+            LanguageToolPool pool,
+            ToolSpec spec,
+            Metrics metrics,
+            BiFunction<JLanguageTool, T, List<R>> check
+    ) {
+        return run(texts, parallelism, () -> {
+            var lease = metrics.time(Metrics.Phase.TOOL_LEASE, () -> pool.acquire(spec));
+            return new Checker<T, R>() {
+                @Override
+                public List<R> check(T text) {
+                    return check.apply(lease.tool(), text);
+                }
+
+                @Override
+                public void close() {
+                    lease.close();
+                }
+            };
+        });
+    }
+
+    /**
+     * Apply a check to every text, leasing tools from a pool other than the
+     * shared one, such as that of a {@link ProofreadWorker}.
+     *
+     * @param texts texts to check.
+     * @param parallelism maximum number of worker threads. Values below two check serially.
+     * @param pool pool to lease tools from.
+     * @param spec spec of the tools used by the check.
+     * @param check check to apply to a single text using a leased tool.
+     * @return concatenated results of the check, in the order of {@code texts}.
+     */
+    static <T, R> List<R> check(
+            List<T> texts,
+            int parallelism,
+            LanguageToolPool pool,
+            ToolSpec spec,
+            BiFunction<JLanguageTool, T, List<R>> check
+    ) {
+        return check(texts, parallelism, pool, spec, Metrics.NONE, check);
+    }
+
+    // Checks texts on one thread, holding any resources it needs until closed.
+    private interface Checker<T, R> extends AutoCloseable {
+        List<R> check(T text);
+
+        @Override
+        void close();
+    }
+
+    private static <T, R> List<R> run(List<T> texts, int parallelism, Supplier<Checker<T, R>> checkers) {
+        if (texts.isEmpty()) {
+            return List.of();
+        }
+        var workers = Math.min(parallelism, texts.size());
+        if (workers < 2) {
+            try (var checker = checkers.get()) {
+                return checkRange(checker, texts, 0, texts.size());
+            }
+        }
+
+        var batchCount = Math.min(texts.size(), workers * BATCHES_PER_WORKER);
+        var batchSize = (texts.size() + batchCount - 1) / batchCount;
+        List<List<R>> batchResults = new ArrayList<>(batchCount);
+        for (int i = 0; i < batchCount; i++) {
+            batchResults.add(null);
+        }
+        var next = new AtomicInteger();
+        var counter = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(workers, r -> {
+            var thread = new Thread(r, "flux-proofread-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    try (var checker = checkers.get()) {
+                        int batch;
+                        while ((batch = next.getAndIncrement()) < batchCount) {
+                            var from = batch * batchSize;
+                            var to = Math.min(texts.size(), from + batchSize);
+                            var result = from < to ? checkRange(checker, texts, from, to) : List.<R>of();
+                            synchronized (batchResults) {
+                                batchResults.set(batch, result);
+                            }
+                        }
+                    }
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while checking text", exc);
+        } catch (ExecutionException exc) {
+            if (exc.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(exc.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<R> results = new ArrayList<>();
+        synchronized (batchResults) {
+            for (var batch : batchResults) {
+                results.addAll(batch);
+            }
+        }
+        return results;
+    }
+
+    private static <T, R> List<R> checkRange(Checker<T, R> checker, List<T> texts, int from, int to) {
+        List<R> results = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            results.addAll(checker.check(texts.get(i)));
+        }
+        return results;
+    }
+}
@@ -4,15 +4,21 @@
  */
 package com.scaffold.api.plugins.language;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Predicate;
 import org.languagetool.JLanguageTool;
-import org.languagetool.rules.spelling.SpellingCheckRule;
 import software.amazon.smithy.model.Model;
 import software.amazon.smithy.model.knowledge.TextIndex;
 import software.amazon.smithy.model.knowledge.TextInstance;
 import software.amazon.smithy.model.node.NodeMapper;
+import software.amazon.smithy.model.node.ObjectNode;
 import software.amazon.smithy.model.traits.DocumentationTrait;
 import software.amazon.smithy.model.validation.AbstractValidator;
 import software.amazon.smithy.model.validation.ValidationEvent;
@@ -21,60 +27,376 @@ import software.amazon.smithy.utils.SmithyInternalApi;
 
 @SmithyInternalApi
 public final class ProofreadValidator extends AbstractValidator {
-    private final JLanguageTool tool;
+    private final ObjectNode configuration;
+    private final ToolSpec spec;
+    private final int parallelism;
+    private final ResultCache.Scope cache;
+    private final String fingerprint;
+    private final boolean collectMetrics;
+    private final Path metricsFile;
+    private final int metricsSlowestTexts;
+    private final Duration textBudget;
+    private final Duration modelBudget;
+    private final int maxChunkChars;
+    private final int sentenceCacheSize;
+    private final SentenceCache sentenceCache;
+    private final SentenceCache.Scope sentences;
+    private final WorkerClient worker;
 
     public static final class Config {
         private String language = "en";
+        private String profile = RuleSelection.Profile.DEFAULT.toString();
+        private List<String> enabledRules = Collections.emptyList();
+        private List<String> disabledRules = Collections.emptyList();
+        private List<String> enabledCategories = Collections.emptyList();
+        private List<String> disabledCategories = Collections.emptyList();
+        private int parallelism = 1;
+        private String cacheDirectory;
+        private long cacheMaxBytes = ResultCache.DEFAULT_MAX_BYTES;
+        private boolean metrics = false;
+        private String metricsFile;
+        private int metricsSlowestTexts = 10;
+        private int textBudgetMillis = 0;
+        private int modelBudgetMillis = 0;
+        private int maxChunkChars = TextChunks.DEFAULT_MAX_CHARS;
+        private boolean warmUp = false;
+        private int sentenceCacheSize = 0;
+        private boolean worker = false;
+        private String workerDirectory;
+        private int workerIdleMinutes = (int) ProofreadWorker.DEFAULT_IDLE_TIMEOUT.toMinutes();
+        private int workerMaxHeapMb = WorkerClient.DEFAULT_MAX_HEAP_MB;
 
         public void setLanguage(String language) {
             this.language = language;
         }
+
+        public void setProfile(String profile) {
+            this.profile = Objects.requireNonNull(profile);
+        }
+
+        public void setEnabledRules(List<String> enabledRules) {
+            this.enabledRules = Objects.requireNonNull(enabledRules);
+        }
+
+        public void setDisabledRules(List<String> disabledRules) {
+            this.disabledRules = Objects.requireNonNull(disabledRules);
+        }
+
+        public void setEnabledCategories(List<String> enabledCategories) {
+            this.enabledCategories = Objects.requireNonNull(enabledCategories);
+        }
+
+        public void setDisabledCategories(List<String> disabledCategories) {
+            this.disabledCategories = Objects.requireNonNull(disabledCategories);
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public void setCacheDirectory(String cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+        }
+
+        public void setCacheMaxBytes(long cacheMaxBytes) {
+            this.cacheMaxBytes = cacheMaxBytes;
+        }
+
+        public void setMetrics(boolean metrics) {
+            this.metrics = metrics;
+        }
+
+        public void setMetricsFile(String metricsFile) {
+            this.metricsFile = metricsFile;
+        }
+
+        public void setMetricsSlowestTexts(int metricsSlowestTexts) {
+            this.metricsSlowestTexts = metricsSlowestTexts;
+        }
+
+        public void setTextBudgetMillis(int textBudgetMillis) {
+            this.textBudgetMillis = textBudgetMillis;
+        }
+
+        public void setModelBudgetMillis(int modelBudgetMillis) {
+            this.modelBudgetMillis = modelBudgetMillis;
+        }
+
+        public void setMaxChunkChars(int maxChunkChars) {
+            this.maxChunkChars = maxChunkChars;
+        }
+
+        public void setWarmUp(boolean warmUp) {
+            this.warmUp = warmUp;
+        }
+
+        public void setSentenceCacheSize(int sentenceCacheSize) {
+            this.sentenceCacheSize = sentenceCacheSize;
+        }
+
+        public void setWorker(boolean worker) {
+            this.worker = worker;
+        }
+
+        public void setWorkerDirectory(String workerDirectory) {
+            this.workerDirectory = workerDirectory;
+        }
+
+        public void setWorkerIdleMinutes(int workerIdleMinutes) {
+            this.workerIdleMinutes = workerIdleMinutes;
+        }
+
+        public void setWorkerMaxHeapMb(int workerMaxHeapMb) {
+            this.workerMaxHeapMb = workerMaxHeapMb;
+        }
+
+        String language() {
+            return Objects.requireNonNullElse(language, "en");
+        }
+
+        int parallelism() {
+            return parallelism;
+        }
+
+        int maxChunkChars() {
+            return maxChunkChars;
+        }
+
+        int sentenceCacheSize() {
+            return sentenceCacheSize;
+        }
+
+        boolean worker() {
+            return worker;
+        }
     }
 
     // Maps metadata from the model into the validator config and instatiates Linter
     public static final class Provider extends ValidatorService.Provider {
         public Provider() {
-            super(ProofreadValidator.class, configuration -> {
-                var mapper = new NodeMapper();
-                var cfg = mapper.deserialize(configuration, Config.class);
-                return new ProofreadValidator(cfg);
-            });
+            super(ProofreadValidator.class, ProofreadValidator::create);
         }
     }
 
-    private ProofreadValidator(Config config) {
-        var langCode = Objects.requireNonNullElse(config.language, "en");
-        tool = new JLanguageTool(LanguageService.load(langCode, getClass().getClassLoader()));
-        // Disable spellcheck rules.
-        for (var rule : tool.getAllActiveRules()) {
-            if (rule instanceof SpellingCheckRule) {
-                tool.disableRule(rule.getId());
-            }
+    static ProofreadValidator create(ObjectNode configuration) {
+        return new ProofreadValidator(configuration, config(configuration));
+    }
+
+    /**
+     * Read a configuration without creating a validator, which opens caches and starts workers.
+     *
+     * @param configuration configuration of the validator.
+     * @return deserialized configuration.
+     */
+    static Config config(ObjectNode configuration) {
+        return new NodeMapper().deserialize(configuration, Config.class);
+    }
+
+    /**
+     * @param config configuration of the validator.
+     * @return spec of the tools the validator checks texts with.
+     */
+    static ToolSpec spec(Config config) {
+        var rules = new RuleSelection(
+                RuleSelection.Profile.of(config.profile),
+                config.enabledRules,
+                config.disabledRules,
+                config.enabledCategories,
+                config.disabledCategories);
+        return ToolSpec.grammar(config.language(), rules);
+    }
+
+    /**
+     * @param config configuration of the validator.
+     * @param spec spec created from the configuration.
+     * @return fingerprint of every setting that affects the matches of a text.
+     */
+    static String fingerprint(Config config, ToolSpec spec) {
+        // Checking sentence by sentence misses matches of rules that span sentences, so results differ.
+        return ResultCache.fingerprint(ValidatorService.determineNameFromClass(ProofreadValidator.class)
+                + ";" + spec + ";maxChunkChars=" + config.maxChunkChars
+                + ";sentences=" + (config.sentenceCacheSize > 0));
+    }
+
+    private ProofreadValidator(ObjectNode configuration, Config config) {
+        this.configuration = configuration;
+        this.spec = spec(config);
+        this.parallelism = config.parallelism;
+        this.fingerprint = fingerprint(config, spec);
+        this.cache = ResultCache.scope(config.cacheDirectory == null
+                ? null
+                : ResultCache.open(Path.of(config.cacheDirectory), config.cacheMaxBytes), fingerprint);
+        this.collectMetrics = config.metrics || config.metricsFile != null;
+        this.metricsFile = config.metricsFile == null ? null : Path.of(config.metricsFile);
+        this.metricsSlowestTexts = config.metricsSlowestTexts;
+        this.textBudget = Duration.ofMillis(config.textBudgetMillis);
+        this.modelBudget = Duration.ofMillis(config.modelBudgetMillis);
+        this.maxChunkChars = config.maxChunkChars;
+        this.sentenceCacheSize = config.sentenceCacheSize;
+        this.sentenceCache = config.sentenceCacheSize > 0 ? SentenceCache.shared(config.sentenceCacheSize) : null;
+        this.sentences = SentenceCache.scope(sentenceCache, fingerprint);
+        this.worker = config.worker
+                ? WorkerClient.shared(config.workerDirectory,
+                        Duration.ofMinutes(config.workerIdleMinutes),
+                        config.workerMaxHeapMb)
+                : null;
+        if (config.warmUp && worker == null) {
+            // Load rules and dictionaries while the rest of the model is validated.
+            LanguageToolPool.shared().warmUp(spec);
         }
     }
 
+    ObjectNode configuration() {
+        return configuration;
+    }
+
+    String fingerprint() {
+        return fingerprint;
+    }
+
+    ResultCache.Scope cache() {
+        return cache;
+    }
+
     @Override
     public List<ValidationEvent> validate(Model model) {
+        return validate(model, text -> true, DocstringAnalysis.of(model));
+    }
+
+    /**
+     * Validate a new version of a previously validated model, as described by {@link TextDiff#validate}.
+     *
+     * @param previous previously validated version of the model.
+     * @param previousEvents events from validating the previous version of the model.
+     * @param model model to validate.
+     * @return events of this validator for the model.
+     */
+    public List<ValidationEvent> validate(Model previous, List<ValidationEvent> previousEvents, Model model) {
+        return TextDiff.validate(getName(), previous, previousEvents, model, changed -> validate(model, changed, null));
+    }
+
+    private List<ValidationEvent> validate(Model model, Predicate<TextInstance> selected, DocstringAnalysis analysis) {
+        var metrics = new Metrics(getName(), collectMetrics, metricsSlowestTexts);
+        var budget = new Budget(textBudget, modelBudget);
+        if (sentenceCache != null) {
+            metrics.observe(sentenceCache);
+        }
+        var textInstances = metrics.time(Metrics.Phase.TEXT_INDEX, () -> TextIndex.of(model).getTextInstances());
+        // Docstrings may already have been checked together with SpellCheck.
+        Map<TextInstance, TextChunks.Result<TextMatch>> analyzed = analysis == null
+                ? Map.of()
+                : analysis.grammarFor(this, metrics, budget);
         List<ValidationEvent> results = new ArrayList<>();
-        var textIndex = TextIndex.of(model);
-        for (var text : textIndex.getTextInstances()) {
-            // Only check grammar in docstrings
-            if (text.getLocationType().equals(TextInstance.TextLocationType.APPLIED_TRAIT)
+        List<TextInstance> docstrings = new ArrayList<>();
+        for (var text : textInstances) {
+            if (!selected.test(text)) {
+                continue;
+            }
+            if (analyzed.containsKey(text)) {
+                cache.put(text, analyzed.get(text));
+                results.addAll(events(text, analyzed.get(text), budget));
+            } else if (text.getLocationType().equals(TextInstance.TextLocationType.APPLIED_TRAIT)
                     && text.getTrait().toShapeId().equals(DocumentationTrait.ID)) {
-                var docTrait = text.getTrait();
-                var matches = LanguageCheckingUtils.getMatches(this.tool, text.getText());
-                for (var match : matches) {
-                    String message = match.getMessage()
-                            .replace("<suggestion>", "`")
-                            .replace("</suggestion>", "`");
-                    results.add(
-                            danger(
-                                    text.getShape(),
-                                    docTrait.getSourceLocation(),
-                                    message));
+                // Only check grammar in docstrings
+                docstrings.add(text);
+            }
+        }
+        var session = worker == null
+                ? null
+                : worker.open(spec, Suggestions.NONE, maxChunkChars, sentenceCacheSize, parallelism);
+        if (session != null) {
+            try (session) {
+                results.addAll(checkInWorker(session, docstrings, metrics, budget));
+            }
+        } else {
+            results.addAll(ParallelTextChecker.check(docstrings, parallelism, spec, metrics,
+                    (tool, text) -> metrics.timeText(text, () -> check(tool, text, metrics, budget))));
+        }
+        results.addAll(budget.events(getName()));
+        cache.flush();
+        metrics.report(metricsFile);
+        return results;
+    }
+
+    private List<ValidationEvent> check(JLanguageTool tool, TextInstance text, Metrics metrics, Budget budget) {
+        var deadline = budget.textDeadline();
+        return events(text, cache.computeIfAbsent(text, () -> LanguageCheckingUtils.getTextMatches(
+                tool, text.getText(), Suggestions.NONE, metrics, maxChunkChars, deadline, sentences)), budget);
+    }
+
+    // Cached docstrings are answered here, and the others are sent to the worker in batches. If the worker fails,
+    // the docstrings it has not answered are checked in process.
+    private List<ValidationEvent> checkInWorker(
+            WorkerClient.Session session,
+            List<TextInstance> texts,
+            Metrics metrics,
+            Budget budget
+    ) {
+        List<List<ValidationEvent>> events = new ArrayList<>(texts.size());
+        List<TextInstance> pending = new ArrayList<>();
+        for (var text : texts) {
+            var cached = cache.get(text);
+            if (cached == null) {
+                pending.add(text);
+            }
+            events.add(cached == null ? null : metrics.timeText(text, () -> events(text, cached, budget)));
+        }
+        Map<TextInstance, List<ValidationEvent>> answered = new IdentityHashMap<>();
+        List<TextInstance> unanswered = List.of();
+        for (int from = 0; from < pending.size(); from += WorkerClient.BATCH_TEXTS) {
+            var batch = pending.subList(from, Math.min(pending.size(), from + WorkerClient.BATCH_TEXTS));
+            // Time the round trip of each batch, which the worker spends checking its texts.
+            var checked = metrics.timeBatch(batch, () -> {
+                var results = metrics.time(Metrics.Phase.CHECK, () -> session.check(batch.stream()
+                        .map(text -> new WorkerClient.Text(text.getText(), false))
+                        .toList(), budget));
+                if (results == null) {
+                    return List.<Map.Entry<TextInstance, List<ValidationEvent>>>of();
+                }
+                List<Map.Entry<TextInstance, List<ValidationEvent>>> batchEvents = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    var text = batch.get(i);
+                    cache.put(text, results.get(i));
+                    batchEvents.add(Map.entry(text, events(text, results.get(i), budget)));
+                }
+                return batchEvents;
+            });
+            if (checked.isEmpty()) {
+                unanswered = pending.subList(from, pending.size());
+                break;
+            }
+            for (var entry : checked) {
+                answered.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (!unanswered.isEmpty()) {
+            try (var lease = LanguageToolPool.shared().acquire(spec)) {
+                for (var text : unanswered) {
+                    answered.put(text, metrics.timeText(text, () -> check(lease.tool(), text, metrics, budget)));
                 }
             }
         }
+        List<ValidationEvent> results = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            results.addAll(events.get(i) == null ? answered.get(texts.get(i)) : events.get(i));
+        }
+        return results;
+    }
+
+    private List<ValidationEvent> events(TextInstance text, TextChunks.Result<TextMatch> result, Budget budget) {
+        budget.record(text, result);
+        List<ValidationEvent> results = new ArrayList<>();
+        var docTrait = text.getTrait();
+        for (var match : result.matches()) {
+            String message = match.message()
+                    .replace("<suggestion>", "`")
+                    .replace("</suggestion>", "`");
+            results.add(
+                    danger(
+                            text.getShape(),
+                            docTrait.getSourceLocation(),
+                            message));
+        }
         return results;
     }
 }
@@ -0,0 +1,519 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import software.amazon.smithy.model.node.ArrayNode;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+import software.amazon.smithy.model.node.StringNode;
+import software.amazon.smithy.utils.SmithyInternalApi;
+
+/**
+ * Long-lived process that checks texts for validators in other processes.
+ * <p>
+ * Usage: {@code ProofreadWorker --directory <dir> [--idle-minutes <n>]}
+ * <p>
+ * Creating and warming up LanguageTool instances takes seconds, and every new
+ * JVM, such as a Gradle worker or a fresh daemon, pays for it again. A worker
+ * keeps its tools, and the JIT-compiled code that runs them, for as long as
+ * it is used, and {@link WorkerClient} sends it texts from any process on the
+ * same machine.
+ * <p>
+ * The worker listens on a random loopback port. It publishes the port and a
+ * random token, required on every request, in a file in its directory. On
+ * POSIX file systems, the directory is created with {@code 0700} permissions,
+ * the worker refuses to run in a directory that another user owns or can write
+ * to, and only the owner can read the file. At most one worker
+ * runs per directory and build of this plugin, which a lock file next to it
+ * enforces. The worker exits once no request has arrived for the idle timeout,
+ * and tools it has not used for that long are dropped before then. Its heap is
+ * capped when it is started, and it exits rather than running out of memory.
+ * <p>
+ * A connection carries any number of requests, each a single line of JSON
+ * answered by a single line of JSON before the next is read. A client first
+ * registers the spec of its tools, and the worker keeps the decoded spec, and
+ * the word verdicts of identifiers checked with it, under the hash of the spec.
+ * Checks then name the spec by that hash and send their texts in batches.
+ */
+@SmithyInternalApi
+public final class ProofreadWorker implements AutoCloseable {
+    static final int PROTOCOL_VERSION = 3;
+    static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    private static final Logger LOGGER = Logger.getLogger(ProofreadWorker.class.getName());
+    private static final int BACKLOG = 64;
+    // How often the accept loop wakes up to check the idle timeout.
+    private static final int ACCEPT_TIMEOUT_MILLIS = 1_000;
+    private static final int READ_TIMEOUT_MILLIS = 60_000;
+    private static final int VERDICT_CACHE_SIZE = 10_000;
+    private static final int MAX_SPECS = 64;
+    private static final int TOKEN_BYTES = 16;
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private final Path directory;
+    private final Duration idleTimeout;
+    private final LanguageToolPool pool;
+    private final String token;
+    private final Map<ObjectNode, Suggestions> suggestions = new ConcurrentHashMap<>();
+    private final Map<String, Registered> specs = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Registered> eldest) {
+            return size() > MAX_SPECS;
+        }
+    };
+    private final AtomicInteger active = new AtomicInteger();
+    private volatile long lastRequest = System.nanoTime();
+    private volatile ServerSocket server;
+    private volatile boolean closed;
+
+    // A spec registered by a client, and the verdicts of words looked up with its tools.
+    private record Registered(ToolSpec spec, WordVerdicts verdicts) {}
+
+    ProofreadWorker(Path directory, Duration idleTimeout) {
+        this.directory = directory;
+        this.idleTimeout = idleTimeout;
+        this.pool = new LanguageToolPool(idleTimeout);
+        var bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        this.token = HexFormat.of().formatHex(bytes);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = null;
+        var idleTimeout = DEFAULT_IDLE_TIMEOUT;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--directory" -> directory = Path.of(value(args, ++i));
+                    case "--idle-minutes" -> idleTimeout = Duration.ofMinutes(Integer.parseInt(value(args, ++i)));
+                    default -> throw new IllegalArgumentException("Unknown option `" + args[i] + "`");
+                }
+            }
+            if (directory == null) {
+                throw new IllegalArgumentException("Expected a `--directory`");
+            }
+        } catch (RuntimeException exc) {
+            System.err.println(exc.getMessage());
+            System.err.println("Usage: ProofreadWorker --directory <dir> [--idle-minutes <n>]");
+            System.exit(2);
+            return;
+        }
+        try (var worker = new ProofreadWorker(directory, idleTimeout)) {
+            worker.run();
+        }
+        // Daemon threads of the tool pool would not stop the JVM, but exit promptly all the same.
+        System.exit(0);
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Expected a value after `" + args[i - 1] + "`");
+        }
+        return args[i];
+    }
+
+    /**
+     * Serve requests until the worker is idle for the idle timeout or closed.
+     * <p>
+     * Returns immediately if another worker already serves the directory.
+     *
+     * @throws IOException if the worker cannot listen or publish its port.
+     */
+    void run() throws IOException {
+        secureDirectory(directory);
+        var key = key();
+        try (var lockChannel = FileChannel.open(directory.resolve("worker-" + key + ".lock"),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+                var lock = lockChannel.tryLock()) {
+            if (lock == null) {
+                LOGGER.info(() -> "Another proofread worker already serves " + directory);
+                return;
+            }
+            var file = workerFile(directory);
+            try (var socket = new ServerSocket(0, BACKLOG, InetAddress.getLoopbackAddress())) {
+                server = socket;
+                publish(file, socket.getLocalPort());
+                LOGGER.info(() -> "Proofread worker listening on port " + socket.getLocalPort());
+                serve(socket);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Stop accepting requests and stop the threads of the tool pool. Requests already accepted are still answered.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        pool.close();
+        var socket = server;
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    private void serve(ServerSocket socket) throws IOException {
+        socket.setSoTimeout(ACCEPT_TIMEOUT_MILLIS);
+        var counter = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            var thread = new Thread(r, "flux-proofread-worker-request-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            while (!closed) {
+                Socket connection;
+                try {
+                    connection = socket.accept();
+                } catch (SocketTimeoutException exc) {
+                    if (active.get() == 0 && System.nanoTime() - lastRequest > idleTimeout.toNanos()) {
+                        LOGGER.info("Proofread worker is idle, stopping");
+                        return;
+                    }
+                    continue;
+                } catch (SocketException exc) {
+                    if (closed) {
+                        return;
+                    }
+                    throw exc;
+                }
+                lastRequest = System.nanoTime();
+                active.incrementAndGet();
+                executor.execute(() -> handle(connection));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private void handle(Socket connection) {
+        try (connection) {
+            connection.setSoTimeout(READ_TIMEOUT_MILLIS);
+            var reader = new BufferedReader(
+                    new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+            var writer = new BufferedWriter(
+                    new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lastRequest = System.nanoTime();
+                ObjectNode response;
+                try {
+                    response = respond(Node.parse(line).expectObjectNode());
+                } catch (RuntimeException exc) {
+                    LOGGER.log(Level.FINE, "Unable to answer request", exc);
+                    response = Node.objectNode().withMember("error", String.valueOf(exc.getMessage()));
+                }
+                writer.write(Node.printJson(response));
+                writer.newLine();
+                writer.flush();
+            }
+        } catch (IOException exc) {
+            LOGGER.log(Level.FINE, "Unable to answer request", exc);
+        } finally {
+            lastRequest = System.nanoTime();
+            active.decrementAndGet();
+        }
+    }
+
+    private ObjectNode respond(ObjectNode request) {
+        var given = request.expectStringMember("token").getValue().getBytes(StandardCharsets.UTF_8);
+        if (!MessageDigest.isEqual(given, token.getBytes(StandardCharsets.UTF_8))) {
+            throw new IllegalArgumentException("Invalid token");
+        }
+        var operation = request.expectStringMember("operation").getValue();
+        return switch (operation) {
+            case "ping" -> Node.objectNode().withMember("version", PROTOCOL_VERSION);
+            case "register" -> register(request);
+            case "check" -> check(request);
+            default -> throw new IllegalArgumentException("Unknown operation `" + operation + "`");
+        };
+    }
+
+    // Clients send the same spec for every run, so it is only decoded the first time.
+    private ObjectNode register(ObjectNode request) {
+        var node = request.expectObjectMember("spec");
+        var id = hash(Node.printJson(node));
+        synchronized (specs) {
+            if (!specs.containsKey(id)) {
+                specs.put(id, new Registered(decodeSpec(node), new WordVerdicts(VERDICT_CACHE_SIZE)));
+            }
+        }
+        return Node.objectNode().withMember("spec", id);
+    }
+
+    private ObjectNode check(ObjectNode request) {
+        var id = request.expectStringMember("spec").getValue();
+        Registered registered;
+        synchronized (specs) {
+            registered = specs.get(id);
+        }
+        if (registered == null) {
+            throw new IllegalArgumentException("Unknown spec `" + id + "`");
+        }
+        var suggestionsNode = request.expectObjectMember("suggestions");
+        var suggestions = this.suggestions.computeIfAbsent(suggestionsNode, ProofreadWorker::decodeSuggestions);
+        var maxChunkChars = request.expectNumberMember("maxChunkChars").getValue().intValue();
+        // Sentences are cached in the worker, for the spec and suggestions of the request, as they would be in process.
+        var sentenceCacheSize = request.getNumberMemberOrDefault("sentenceCacheSize", 0).intValue();
+        var sentences = SentenceCache.scope(sentenceCacheSize > 0 ? SentenceCache.shared(sentenceCacheSize) : null,
+                id + ";" + Node.printJson(suggestionsNode));
+        var parallelism = request.getNumberMemberOrDefault("parallelism", 1).intValue();
+        var textNanos = request.expectNumberMember("textBudgetNanos").getValue().longValue();
+        var remainingNanos = request.getNumberMember("remainingNanos").map(n -> n.getValue().longValue());
+        // The model budget of the client continues here, and is never zero, which would mean no limit.
+        var budget = new Budget(Duration.ofNanos(textNanos),
+                remainingNanos.map(n -> Duration.ofNanos(Math.max(1, n))).orElse(Duration.ZERO));
+        var texts = request.expectArrayMember("texts").getElementsAs(ObjectNode.class);
+        var results = ParallelTextChecker.check(texts, parallelism, pool, registered.spec(), (tool, text) -> {
+            var value = text.expectStringMember("text").getValue();
+            if (text.getBooleanMemberOrDefault("identifier", false) && registered.verdicts().allKnown(tool, value)) {
+                return List.of(encodeResult(TextChunks.Result.complete(List.of(), value.length())));
+            }
+            return List.of(encodeResult(LanguageCheckingUtils.getTextMatches(tool, value, suggestions,
+                    Metrics.NONE, maxChunkChars, budget.textDeadline(), sentences)));
+        });
+        return Node.objectNode().withMember("results", results.stream().collect(ArrayNode.collect()));
+    }
+
+    // Temporary files are only readable by their owner. Moving it into place means clients never see part of it.
+    private void publish(Path file, int port) throws IOException {
+        var content = Node.printJson(Node.objectNode()
+                .withMember("port", port)
+                .withMember("token", token)
+                .withMember("pid", ProcessHandle.current().pid()));
+        var temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temp, content, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Create the directory of a worker if needed, and check that no other user
+     * can use it to direct texts to a process of their own.
+     * <p>
+     * On file systems without POSIX permissions, the directory is only created.
+     *
+     * @param directory directory of the worker.
+     * @throws IOException if the directory cannot be created, or another user owns it or can write to it.
+     */
+    static void secureDirectory(Path directory) throws IOException {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(directory);
+            return;
+        }
+        if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            var parent = directory.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try {
+                Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+            } catch (FileAlreadyExistsException exc) {
+                // Created concurrently, and checked below like any other existing directory.
+            }
+        }
+        checkOwnerOnly(directory, true);
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException(directory + " is not a directory");
+        }
+    }
+
+    /**
+     * Check that a worker file or directory belongs to the current user, and
+     * that no other user can write to it, or, for files, read it.
+     * <p>
+     * Does nothing on file systems without POSIX permissions.
+     *
+     * @param path file or directory to check.
+     * @param directory whether the path is a directory, which others may read and list.
+     * @throws IOException if the path does not exist, or another user owns it or has access to it.
+     */
+    static void checkOwnerOnly(Path path, boolean directory) throws IOException {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return;
+        }
+        var attributes = Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        var owner = path.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (attributes.isSymbolicLink()) {
+            throw new IOException(path + " is a symbolic link");
+        }
+        if (!attributes.owner().equals(owner)) {
+            throw new IOException(path + " is owned by " + attributes.owner().getName() + ", not " + owner.getName());
+        }
+        var permissions = attributes.permissions();
+        var shared = directory
+                ? permissions.contains(PosixFilePermission.GROUP_WRITE)
+                        || permissions.contains(PosixFilePermission.OTHERS_WRITE)
+                : permissions.stream().anyMatch(permission -> !OWNER_ONLY.contains(permission));
+        if (shared) {
+            throw new IOException(path + " is accessible to other users, with permissions "
+                    + PosixFilePermissions.toString(permissions));
+        }
+    }
+
+    /**
+     * @param directory directory of the worker.
+     * @return file the worker for this build of the plugin publishes its port and token in.
+     */
+    static Path workerFile(Path directory) {
+        return directory.resolve("worker-" + key() + ".json");
+    }
+
+    // Workers only serve clients from the same build of the plugin, since the protocol and rules may differ.
+    private static String key() {
+        var location = "";
+        var modified = 0L;
+        var source = ProofreadWorker.class.getProtectionDomain().getCodeSource();
+        if (source != null && source.getLocation() != null) {
+            location = source.getLocation().toString();
+            try {
+                modified = Path.of(source.getLocation().toURI()).toFile().lastModified();
+            } catch (URISyntaxException | IllegalArgumentException exc) {
+                // Not a file, so only its location identifies it.
+            }
+        }
+        return hash(PROTOCOL_VERSION + ";" + location + ";" + modified).substring(0, 16);
+    }
+
+    private static String hash(String value) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException exc) {
+            throw new IllegalStateException(exc);
+        }
+    }
+
+    static ObjectNode encodeSpec(ToolSpec spec) {
+        return Node.objectNode()
+                .withMember("languageCode", spec.languageCode())
+                .withMember("mode", spec.mode().name())
+                .withMember("ignore", Node.fromStrings(spec.ignore()))
+                .withMember("ignorePatterns", Node.fromStrings(spec.ignorePatterns().patterns()))
+                .withMember("dictionaries", spec.dictionaries().stream()
+                        .map(dictionary -> Node.objectNode()
+                                .withMember("path", dictionary.path().toAbsolutePath().toString())
+                                .withMember("checksum", dictionary.checksum()))
+                        .collect(ArrayNode.collect()))
+                .withMember("profile", spec.rules().profile().toString())
+                .withMember("enabledRules", Node.fromStrings(spec.rules().enabledRules()))
+                .withMember("disabledRules", Node.fromStrings(spec.rules().disabledRules()))
+                .withMember("enabledCategories", Node.fromStrings(spec.rules().enabledCategories()))
+                .withMember("disabledCategories", Node.fromStrings(spec.rules().disabledCategories()));
+    }
+
+    static ToolSpec decodeSpec(ObjectNode node) {
+        var rules = new RuleSelection(
+                RuleSelection.Profile.of(node.expectStringMember("profile").getValue()),
+                strings(node, "enabledRules"),
+                strings(node, "disabledRules"),
+                strings(node, "enabledCategories"),
+                strings(node, "disabledCategories"));
+        return new ToolSpec(
+                node.expectStringMember("languageCode").getValue(),
+                ToolSpec.Mode.valueOf(node.expectStringMember("mode").getValue()),
+                strings(node, "ignore"),
+                IgnorePatterns.compile(strings(node, "ignorePatterns")),
+                node.expectArrayMember("dictionaries").getElementsAs(ObjectNode.class).stream()
+                        .map(dictionary -> new ToolSpec.DictionaryFile(
+                                Path.of(dictionary.expectStringMember("path").getValue()),
+                                dictionary.expectNumberMember("checksum").getValue().longValue()))
+                        .toList(),
+                rules);
+    }
+
+    static ObjectNode encodeSuggestions(Suggestions suggestions) {
+        return Node.objectNode()
+                .withMember("limit", suggestions.limit())
+                .withMember("maxEditDistance", suggestions.maxEditDistance())
+                .withMember("budgetNanos", suggestions.budget().toNanos());
+    }
+
+    static Suggestions decodeSuggestions(ObjectNode node) {
+        return new Suggestions(
+                node.expectNumberMember("limit").getValue().intValue(),
+                node.expectNumberMember("maxEditDistance").getValue().intValue(),
+                Duration.ofNanos(node.expectNumberMember("budgetNanos").getValue().longValue()));
+    }
+
+    static ObjectNode encodeResult(TextChunks.Result<TextMatch> result) {
+        List<Node> matches = new ArrayList<>(result.matches().size());
+        for (var match : result.matches()) {
+            matches.add(Node.objectNode()
+                    .withMember("fromPos", match.fromPos())
+                    .withMember("toPos", match.toPos())
+                    .withMember("message", match.message())
+                    .withMember("replacements", Node.fromStrings(match.replacements())));
+        }
+        return Node.objectNode()
+                .withMember("matches", Node.fromNodes(matches))
+                .withMember("checkedChars", result.checkedChars())
+                .withMember("length", result.length());
+    }
+
+    static TextChunks.Result<TextMatch> decodeResult(ObjectNode node) {
+        List<TextMatch> matches = new ArrayList<>();
+        for (var match : node.expectArrayMember("matches").getElementsAs(ObjectNode.class)) {
+            matches.add(new TextMatch(
+                    match.expectNumberMember("fromPos").getValue().intValue(),
+                    match.expectNumberMember("toPos").getValue().intValue(),
+                    match.expectStringMember("message").getValue(),
+                    strings(match, "replacements")));
+        }
+        return new TextChunks.Result<>(
+                matches,
+                node.expectNumberMember("checkedChars").getValue().intValue(),
+                node.expectNumberMember("length").getValue().intValue());
+    }
+
+    private static List<String> strings(ObjectNode node, String member) {
+        return node.expectArrayMember(member).getElementsAs(StringNode::getValue);
+    }
+}
@@ -0,0 +1,505 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import org.languagetool.JLanguageTool;
+import software.amazon.smithy.model.knowledge.TextInstance;
+
+/**
+ * Persistent cache of the matches found in each checked text.
+ * <p>
+ * Entries are keyed by a hash of the text, its location type and the
+ * fingerprint of the validator configuration that checked it. The cache file
+ * starts with a header naming the LanguageTool version and built-in term list
+ * it was written with; a file written with any other header is discarded.
+ * <p>
+ * The file is append-only: entries computed during a run are appended when the
+ * validator that computed them finishes. A separate lock file serializes
+ * writers across processes, so parallel Gradle workers can share a directory.
+ * When the file outgrows its size limit it is rewritten with only the entries
+ * used by the current process, most recently used first.
+ * <p>
+ * The entries held in memory are bounded by the same size limit, measured as
+ * they are written to the file, and the least recently used are evicted
+ * first, so that long-running processes such as the batch runner and the
+ * worker do not grow without bound.
+ */
+final class ResultCache {
+    private static final Logger LOGGER = Logger.getLogger(ResultCache.class.getName());
+    static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final Map<Path, ResultCache> OPEN = new ConcurrentHashMap<>();
+    private static final int MAGIC = 0x464C5843;
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_NAME = "proofread.cache";
+    private static final String LOCK_FILE_NAME = "proofread.cache.lock";
+
+    private final Path file;
+    private final Path lockFile;
+    private final long maxBytes;
+    private final String generation;
+    // In access order, guarded by itself, as are used and entryBytes.
+    private final Map<Key, List<TextMatch>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Key> used = new HashSet<>();
+    private long entryBytes;
+    private final Map<Key, List<TextMatch>> pending = new LinkedHashMap<>();
+
+    private ResultCache(Path directory, long maxBytes, String generation) {
+        this.file = directory.resolve(FILE_NAME);
+        this.lockFile = directory.resolve(LOCK_FILE_NAME);
+        this.maxBytes = maxBytes;
+        this.generation = generation;
+    }
+
+    /**
+     * Open the cache stored in a directory.
+     * <p>
+     * All validators in a process that use the same directory share one cache.
+     *
+     * @param directory directory holding the cache file.
+     * @param maxBytes size at which the cache file is compacted.
+     * @return opened cache.
+     */
+    static ResultCache open(Path directory, long maxBytes) {
+        return OPEN.computeIfAbsent(directory.toAbsolutePath().normalize(), dir -> load(dir, maxBytes));
+    }
+
+    /**
+     * Load a cache from a directory without sharing it.
+     *
+     * @param directory directory holding the cache file.
+     * @param maxBytes size at which the cache file is compacted.
+     * @return loaded cache.
+     */
+    static ResultCache load(Path directory, long maxBytes) {
+        var cache = new ResultCache(directory, maxBytes, generation());
+        try {
+            Files.createDirectories(directory);
+            cache.load();
+        } catch (IOException exc) {
+            LOGGER.warning("Ignoring unreadable proofread cache in " + directory + ": " + exc.getMessage());
+            synchronized (cache.entries) {
+                cache.entries.clear();
+                cache.used.clear();
+                cache.entryBytes = 0;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Limit a cache to the matches of one configuration.
+     *
+     * @param cache cache to use, or null to check texts without a cache.
+     * @param fingerprint fingerprint of the configuration.
+     * @return view of the cache.
+     */
+    static Scope scope(ResultCache cache, String fingerprint) {
+        return cache == null ? Scope.NONE : new Scope(cache, fingerprint);
+    }
+
+    /**
+     * Compute a compact fingerprint of a validator configuration.
+     *
+     * @param configuration description of every setting that affects matches.
+     * @return fingerprint to use when computing keys.
+     */
+    static String fingerprint(String configuration) {
+        return HexFormat.of().formatHex(sha256(configuration));
+    }
+
+    /**
+     * Compute a cache key.
+     *
+     * @param fingerprint fingerprint of the validator configuration.
+     * @param locationType location type of the text.
+     * @param text text to check.
+     * @return key of the text.
+     */
+    static Key key(String fingerprint, String locationType, String text) {
+        var hash = ByteBuffer.wrap(sha256(fingerprint + '\0' + locationType + '\0' + text));
+        return new Key(hash.getLong(), hash.getLong());
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException exc) {
+            throw new IllegalStateException("SHA-256 is not available", exc);
+        }
+    }
+
+    /**
+     * Get the cached matches for a key, computing and caching them if absent.
+     *
+     * @param key key of the text.
+     * @param compute computes the matches of the text.
+     * @return matches of the text.
+     */
+    List<TextMatch> computeIfAbsent(Key key, Supplier<List<TextMatch>> compute) {
+        var cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return put(key, compute.get());
+    }
+
+    /**
+     * Get the cached matches for a key.
+     *
+     * @param key key of the text.
+     * @return matches of the text, or null if not cached.
+     */
+    List<TextMatch> get(Key key) {
+        synchronized (entries) {
+            var matches = entries.get(key);
+            if (matches != null) {
+                used.add(key);
+            }
+            return matches;
+        }
+    }
+
+    /**
+     * Cache the matches for a key, unless already cached.
+     *
+     * @param key key of the text.
+     * @param matches all matches of the text.
+     * @return cached matches of the text.
+     */
+    List<TextMatch> put(Key key, List<TextMatch> matches) {
+        var copy = List.copyOf(matches);
+        synchronized (entries) {
+            var previous = entries.get(key);
+            if (previous != null) {
+                used.add(key);
+                return previous;
+            }
+            add(key, copy);
+            used.add(key);
+        }
+        synchronized (pending) {
+            pending.put(key, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * Append all entries computed since the last flush to the cache file.
+     */
+    void flush() {
+        Map<Key, List<TextMatch>> toWrite;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            toWrite = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        try (var lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                var lock = lockChannel.lock()) {
+            if (!hasCurrentHeader()) {
+                rewrite(Map.of());
+            }
+            try (var out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.APPEND)))) {
+                for (var entry : toWrite.entrySet()) {
+                    writeEntry(out, entry.getKey(), entry.getValue());
+                }
+            }
+            if (Files.size(file) > maxBytes) {
+                compact();
+            }
+        } catch (IOException exc) {
+            LOGGER.warning("Unable to write proofread cache " + file + ": " + exc.getMessage());
+        }
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (var lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                var lock = lockChannel.lock();
+                var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (!readHeader(in)) {
+                return;
+            }
+            while (true) {
+                long high;
+                try {
+                    high = in.readLong();
+                } catch (EOFException exc) {
+                    return;
+                }
+                try {
+                    var key = new Key(high, in.readLong());
+                    var matches = readMatches(in);
+                    synchronized (entries) {
+                        add(key, matches);
+                    }
+                } catch (EOFException exc) {
+                    // Truncated trailing entry from an interrupted writer.
+                    return;
+                }
+            }
+        }
+    }
+
+    // Called with entries locked. Evicts the least recently used entries once over the size limit.
+    private void add(Key key, List<TextMatch> matches) {
+        var previous = entries.put(key, matches);
+        if (previous != null) {
+            entryBytes -= entrySize(previous);
+        }
+        entryBytes += entrySize(matches);
+        var iterator = entries.entrySet().iterator();
+        while (entryBytes > maxBytes && entries.size() > 1) {
+            var eldest = iterator.next();
+            iterator.remove();
+            used.remove(eldest.getKey());
+            entryBytes -= entrySize(eldest.getValue());
+        }
+    }
+
+    // Keep only the entries used by this process, within the size limit, evicting the least recently used first.
+    // The retained entries are written least recently used first, so that a later load keeps that order.
+    private void compact() throws IOException {
+        List<Map.Entry<Key, List<TextMatch>>> usedEntries = new ArrayList<>();
+        synchronized (entries) {
+            for (var entry : entries.entrySet()) {
+                if (used.contains(entry.getKey())) {
+                    usedEntries.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+        var first = usedEntries.size();
+        long bytes = 10 + generation.length();
+        while (first > 0 && bytes + entrySize(usedEntries.get(first - 1).getValue()) <= maxBytes) {
+            first--;
+            bytes += entrySize(usedEntries.get(first).getValue());
+        }
+        Map<Key, List<TextMatch>> retained = new LinkedHashMap<>();
+        for (var entry : usedEntries.subList(first, usedEntries.size())) {
+            retained.put(entry.getKey(), entry.getValue());
+        }
+        rewrite(retained);
+    }
+
+    // Approximate size of an entry in the cache file, counting characters rather than encoded bytes.
+    private static long entrySize(List<TextMatch> matches) {
+        long size = 24 + 4;
+        for (var match : matches) {
+            size += 14 + match.message().length();
+            for (var replacement : match.replacements()) {
+                size += 2 + replacement.length();
+            }
+        }
+        return size;
+    }
+
+    private void rewrite(Map<Key, List<TextMatch>> retained) throws IOException {
+        var temp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            writeHeader(out);
+            var bytes = new CountingStream();
+            try (var counter = new DataOutputStream(bytes)) {
+                writeHeader(counter);
+                for (var entry : retained.entrySet()) {
+                    writeEntry(counter, entry.getKey(), entry.getValue());
+                    if (bytes.count > maxBytes) {
+                        break;
+                    }
+                    writeEntry(out, entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private boolean hasCurrentHeader() throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return readHeader(in);
+        } catch (EOFException exc) {
+            return false;
+        }
+    }
+
+    private boolean readHeader(DataInputStream in) throws IOException {
+        return in.readInt() == MAGIC && in.readInt() == FORMAT_VERSION && in.readUTF().equals(generation);
+    }
+
+    private void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(generation);
+    }
+
+    // Entries are written as a single buffer so a reader never sees a partially written entry body.
+    private static void writeEntry(DataOutputStream out, Key key, List<TextMatch> matches) throws IOException {
+        var buffer = new ByteArrayOutputStream();
+        var data = new DataOutputStream(buffer);
+        data.writeInt(matches.size());
+        for (var match : matches) {
+            data.writeInt(match.fromPos());
+            data.writeInt(match.toPos());
+            data.writeUTF(match.message());
+            data.writeInt(match.replacements().size());
+            for (var replacement : match.replacements()) {
+                data.writeUTF(replacement);
+            }
+        }
+        data.flush();
+        out.writeLong(key.high());
+        out.writeLong(key.low());
+        out.writeInt(buffer.size());
+        buffer.writeTo(out);
+    }
+
+    private static List<TextMatch> readMatches(DataInputStream in) throws IOException {
+        var bytes = in.readNBytes(in.readInt());
+        var data = new DataInputStream(new ByteArrayInputStream(bytes));
+        var count = data.readInt();
+        List<TextMatch> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            var from = data.readInt();
+            var to = data.readInt();
+            var message = data.readUTF();
+            var replacementCount = data.readInt();
+            List<String> replacements = new ArrayList<>(replacementCount);
+            for (int j = 0; j < replacementCount; j++) {
+                replacements.add(data.readUTF());
+            }
+            matches.add(new TextMatch(from, to, message, replacements));
+        }
+        return List.copyOf(matches);
+    }
+
+    // Identifies the LanguageTool build and built-in vocabulary. Any change invalidates the whole file.
+    private static String generation() {
+        return "languagetool=" + JLanguageTool.VERSION + ";terms=" + String.join(",", CodingEnglish.EXTRA_TERMS);
+    }
+
+    /**
+     * 128-bit hash of a cached text and its configuration.
+     */
+    record Key(long high, long low) {}
+
+    /**
+     * Result cache limited to one configuration, keyed by text.
+     * <p>
+     * Matches of texts that were only partly checked are not cached.
+     */
+    static final class Scope {
+        /** Checks texts without a cache. */
+        static final Scope NONE = new Scope(null, "");
+
+        private final ResultCache cache;
+        private final String fingerprint;
+
+        private Scope(ResultCache cache, String fingerprint) {
+            this.cache = cache;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * @param text text to get matches for.
+         * @return cached result of the text, or null if not cached.
+         */
+        TextChunks.Result<TextMatch> get(TextInstance text) {
+            var matches = cache == null ? null : cache.get(key(text));
+            return matches == null ? null : TextChunks.Result.complete(matches, text.getText().length());
+        }
+
+        /**
+         * Cache the result of a text, if it was fully checked.
+         *
+         * @param text checked text.
+         * @param result result of the check.
+         */
+        void put(TextInstance text, TextChunks.Result<TextMatch> result) {
+            if (cache != null && result.complete()) {
+                cache.put(key(text), result.matches());
+            }
+        }
+
+        /**
+         * Get the cached result of a text, computing and caching it if absent.
+         *
+         * @param text text to get matches for.
+         * @param compute checks the text if it is not cached.
+         * @return result of the text.
+         */
+        TextChunks.Result<TextMatch> computeIfAbsent(
+                TextInstance text,
+                Supplier<TextChunks.Result<TextMatch>> compute
+        ) {
+            var cached = get(text);
+            if (cached != null) {
+                return cached;
+            }
+            var result = compute.get();
+            put(text, result);
+            return result;
+        }
+
+        /**
+         * Append the entries computed since the last flush to the cache file.
+         */
+        void flush() {
+            if (cache != null) {
+                cache.flush();
+            }
+        }
+
+        private Key key(TextInstance text) {
+            return ResultCache.key(fingerprint, text.getLocationType().name(), text.getText());
+        }
+    }
+
+    private static final class CountingStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import org.languagetool.JLanguageTool;
+import org.languagetool.rules.CategoryId;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.spelling.SpellingCheckRule;
+
+/**
+ * Grammar rules used to proofread text.
+ * <p>
+ * Rules are first selected by {@link Profile}, then explicitly enabled rules
+ * and categories are added, and explicitly disabled rules and categories are
+ * removed. A rule that is both enabled and disabled is disabled. Spellcheck
+ * rules are never affected.
+ * <p>
+ * Where possible, rules that are not selected are never loaded: {@link CodingEnglish}
+ * skips the style rule file in the {@code fast} profile and drops unselected
+ * Java rules when it creates them. Rules loaded from rule files that are still
+ * needed for other rules are disabled on the tool instead.
+ *
+ * @param profile base set of rules.
+ * @param enabledRules IDs of rules to add to the profile, sorted and de-duplicated.
+ * @param disabledRules IDs of rules to remove from the profile, sorted and de-duplicated.
+ * @param enabledCategories IDs of rule categories to add to the profile, sorted and de-duplicated.
+ * @param disabledCategories IDs of rule categories to remove from the profile, sorted and de-duplicated.
+ */
+record RuleSelection(
+        Profile profile,
+        List<String> enabledRules,
+        List<String> disabledRules,
+        List<String> enabledCategories,
+        List<String> disabledCategories
+) {
+    static final RuleSelection DEFAULT = new RuleSelection(Profile.DEFAULT, List.of(), List.of(), List.of(), List.of());
+
+    // Categories that catch outright mistakes rather than matters of style.
+    private static final Set<String> FAST_CATEGORIES = Set.of(
+            "CASING",
+            "CONFUSED_WORDS",
+            "GRAMMAR",
+            "MISC",
+            "PUNCTUATION",
+            "TYPOS");
+    // Categories that do not apply to API documentation, even when strict.
+    private static final Set<String> STRICT_EXCLUDED_CATEGORIES = Set.of(
+            "CREATIVE_WRITING",
+            "WIKIPEDIA");
+    private static final String STYLE_RULE_FILE = "style.xml";
+
+    /**
+     * Base sets of grammar rules.
+     */
+    enum Profile {
+        /**
+         * Rules in categories that catch outright mistakes, such as grammar,
+         * confused words, casing and punctuation. Style rules are not loaded.
+         */
+        FAST,
+        /** Rules LanguageTool enables by default. */
+        DEFAULT,
+        /** All rules, including those LanguageTool turns off by default. */
+        STRICT;
+
+        static Profile of(String name) {
+            for (var profile : values()) {
+                if (profile.name().equalsIgnoreCase(name)) {
+                    return profile;
+                }
+            }
+            throw new IllegalArgumentException("Unknown rule profile `" + name + "`. Expected one of `fast`, "
+                    + "`default` or `strict`.");
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ENGLISH);
+        }
+    }
+
+    RuleSelection {
+        Objects.requireNonNull(profile);
+        enabledRules = enabledRules.stream().distinct().sorted().toList();
+        disabledRules = disabledRules.stream().distinct().sorted().toList();
+        enabledCategories = enabledCategories.stream().distinct().sorted().toList();
+        disabledCategories = disabledCategories.stream().distinct().sorted().toList();
+    }
+
+    /**
+     * @param fileName path of a pattern rule file.
+     * @return true if rules from the file may be selected.
+     */
+    boolean loadsRuleFile(String fileName) {
+        return profile != Profile.FAST || !fileName.endsWith("/" + STYLE_RULE_FILE) || hasEnabledRulesOrCategories();
+    }
+
+    /**
+     * @param rule rule to check.
+     * @return true if the rule is selected, whether or not it is on by default.
+     */
+    boolean loads(Rule rule) {
+        if (rule instanceof SpellingCheckRule) {
+            return true;
+        }
+        var category = category(rule);
+        if (disabledRules.contains(rule.getId()) || disabledCategories.contains(category)) {
+            return false;
+        }
+        if (enabledRules.contains(rule.getId()) || enabledCategories.contains(category)) {
+            return true;
+        }
+        return switch (profile) {
+            case FAST -> FAST_CATEGORIES.contains(category);
+            case DEFAULT -> true;
+            case STRICT -> !STRICT_EXCLUDED_CATEGORIES.contains(category);
+        };
+    }
+
+    /**
+     * Enable and disable the rules of a tool to match this selection.
+     *
+     * @param tool tool to configure.
+     */
+    void configure(JLanguageTool tool) {
+        if (equals(DEFAULT)) {
+            return;
+        }
+        for (var rule : tool.getAllRules()) {
+            if (rule instanceof SpellingCheckRule) {
+                continue;
+            }
+            if (!loads(rule)) {
+                tool.disableRule(rule.getId());
+            } else if (isEnabled(rule)) {
+                tool.enableRule(rule.getId());
+                if (rule.getCategory() != null && rule.getCategory().isDefaultOff()) {
+                    tool.enableRuleCategory(rule.getCategory().getId());
+                }
+            }
+        }
+        for (var category : enabledCategories) {
+            if (!disabledCategories.contains(category)) {
+                tool.enableRuleCategory(new CategoryId(category));
+            }
+        }
+    }
+
+    // Selected rules that must be turned on even though LanguageTool may turn them off by default.
+    private boolean isEnabled(Rule rule) {
+        return profile == Profile.STRICT
+                || enabledRules.contains(rule.getId())
+                || enabledCategories.contains(category(rule));
+    }
+
+    private boolean hasEnabledRulesOrCategories() {
+        return !enabledRules.isEmpty() || !enabledCategories.isEmpty();
+    }
+
+    private static String category(Rule rule) {
+        return rule.getCategory() == null ? "" : rule.getCategory().getId().toString();
+    }
+}
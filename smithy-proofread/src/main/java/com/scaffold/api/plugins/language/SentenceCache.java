@@ -0,0 +1,181 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Process-wide, bounded cache of the matches found in single sentences.
+ * <p>
+ * Generated models repeat sentences such as "The maximum number of results to
+ * return." across many shapes. With this cache, each distinct sentence is
+ * checked once per configuration, and its matches are moved to the offset of
+ * the sentence in every text that contains it. Sentences are split as by
+ * {@link TextChunks#sentences}, ignoring the whitespace that starts them.
+ * <p>
+ * Entries are keyed by a scope, naming the configuration that checked the
+ * sentence, and the sentence itself. The least recently used entries are
+ * evicted once the cache holds its maximum number of entries, which is the
+ * largest maximum requested by any validator.
+ */
+final class SentenceCache {
+    private static final SentenceCache SHARED = new SentenceCache(0);
+    // Rough size of an entry besides its text: map node, key record and match list.
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+    private static final long MATCH_BYTES = 160;
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile int maxEntries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long estimatedBytes;
+
+    private record Key(String scope, String sentence) {}
+
+    private record Entry(List<?> matches, long bytes) {}
+
+    /**
+     * Counters of a sentence cache.
+     *
+     * @param hits number of sentences found in the cache.
+     * @param misses number of sentences checked and added to the cache.
+     * @param evictions number of entries evicted to stay within the maximum.
+     * @param entries number of cached sentences.
+     * @param estimatedBytes rough estimate of the heap used by cached sentences and matches.
+     */
+    record Stats(long hits, long misses, long evictions, int entries, long estimatedBytes) {}
+
+    SentenceCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get the shared cache, growing it to hold at least the given number of entries.
+     *
+     * @param maxEntries maximum number of entries needed by the caller.
+     * @return cache shared by all validators in this process.
+     */
+    static SentenceCache shared(int maxEntries) {
+        SHARED.ensureCapacity(maxEntries);
+        return SHARED;
+    }
+
+    private synchronized void ensureCapacity(int maxEntries) {
+        this.maxEntries = Math.max(this.maxEntries, maxEntries);
+    }
+
+    /**
+     * Limit a cache to the matches of one configuration.
+     *
+     * @param cache cache to use, or null to check texts without a cache.
+     * @param scope identifies the configuration, such as the fingerprint of a validator.
+     * @return view of the cache.
+     */
+    static Scope scope(SentenceCache cache, String scope) {
+        return new Scope(cache, scope);
+    }
+
+    /**
+     * @return current counters of the cache.
+     */
+    synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), estimatedBytes);
+    }
+
+    private synchronized List<?> get(Key key) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.matches();
+    }
+
+    private synchronized void put(Key key, List<?> matches) {
+        var bytes = ENTRY_OVERHEAD_BYTES + 2L * (key.scope().length() + key.sentence().length())
+                + MATCH_BYTES * matches.size();
+        var previous = entries.put(key, new Entry(matches, bytes));
+        estimatedBytes += bytes - (previous == null ? 0 : previous.bytes());
+        var eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            estimatedBytes -= eldest.next().getValue().bytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Sentence cache limited to one configuration.
+     */
+    static final class Scope {
+        /** Checks texts without a cache. */
+        static final Scope NONE = new Scope(null, "");
+
+        private final SentenceCache cache;
+        private final String scope;
+
+        private Scope(SentenceCache cache, String scope) {
+            this.cache = cache;
+            this.scope = scope;
+        }
+
+        /**
+         * Check a text sentence by sentence, reusing the matches of sentences
+         * already checked in this scope.
+         *
+         * @param text text to check.
+         * @param metrics records cache hits and misses.
+         * @param check checks a single sentence, or the whole text if there is no cache.
+         * @param shift moves a match of a sentence by the offset of the sentence in the text.
+         * @return matches of the text.
+         */
+        <M> List<M> check(
+                String text,
+                Metrics metrics,
+                Function<String, List<M>> check,
+                BiFunction<M, Integer, M> shift
+        ) {
+            if (cache == null || cache.maxEntries <= 0) {
+                return check.apply(text);
+            }
+            List<M> matches = new ArrayList<>();
+            int start = 0;
+            for (var end : TextChunks.sentences(text)) {
+                var from = start;
+                while (from < end && Character.isWhitespace(text.charAt(from))) {
+                    from++;
+                }
+                start = end;
+                if (from == end) {
+                    continue;
+                }
+                for (var match : sentence(text.substring(from, end), metrics, check)) {
+                    matches.add(shift.apply(match, from));
+                }
+            }
+            return matches;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <M> List<M> sentence(String sentence, Metrics metrics, Function<String, List<M>> check) {
+            var key = new Key(scope, sentence);
+            var cached = (List<M>) cache.get(key);
+            metrics.sentenceLookup(cached != null);
+            if (cached != null) {
+                return cached;
+            }
+            var matches = List.copyOf(check.apply(sentence));
+            cache.put(key, matches);
+            return matches;
+        }
+    }
+}
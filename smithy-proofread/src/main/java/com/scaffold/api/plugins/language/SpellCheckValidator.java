@@ -4,18 +4,29 @@
  */
 package com.scaffold.api.plugins.language;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.languagetool.JLanguageTool;
-import org.languagetool.rules.RuleMatch;
 import software.amazon.smithy.model.Model;
 import software.amazon.smithy.model.SourceLocation;
 import software.amazon.smithy.model.knowledge.TextIndex;
 import software.amazon.smithy.model.knowledge.TextInstance;
 import software.amazon.smithy.model.node.NodeMapper;
+import software.amazon.smithy.model.node.ObjectNode;
 import software.amazon.smithy.model.shapes.Shape;
 import software.amazon.smithy.model.traits.DocumentationTrait;
 import software.amazon.smithy.model.traits.Trait;
@@ -33,21 +44,73 @@ public final class SpellCheckValidator extends AbstractValidator {
     private static final String SHAPE = "Shape";
     private static final String NAMESPACE = "Namespace";
     private static final Set<Character> TRIGGER_CHARS = Set.of('-', '_');
+    private static final int WORD_CACHE_SIZE = 10_000;
+    // Texts up to this length are checked in batches, when enabled.
+    private static final int BATCH_TEXT_MAX_CHARS = 200;
+    private static final Logger LOGGER = Logger.getLogger(SpellCheckValidator.class.getName());
 
-    private final JLanguageTool tool;
+    private final ObjectNode configuration;
+    private final ToolSpec spec;
     private final boolean docstrings;
     private final int limit;
+    private final Suggestions suggestions;
+    private final int parallelism;
+    private final ResultCache.Scope cache;
+    private final String fingerprint;
+    private final boolean collectMetrics;
+    private final Path metricsFile;
+    private final int metricsSlowestTexts;
+    private final Duration textBudget;
+    private final Duration modelBudget;
+    private final int maxChunkChars;
+    private final int sentenceCacheSize;
+    private final SentenceCache sentenceCache;
+    private final SentenceCache.Scope sentences;
+    private final int batchSize;
+    private final TextFilter filter;
+    private final WorkerClient worker;
 
     public static final class Config {
         private List<String> ignore = Collections.emptyList();
+        private List<String> ignoreFiles = Collections.emptyList();
+        private List<String> dictionaries = Collections.emptyList();
         private boolean docstrings = true;
         private int limit = 4;
+        private int maxEditDistance = 0;
+        private int suggestionBudgetMillis = 0;
         private String language = "en";
+        private int parallelism = 1;
+        private String cacheDirectory;
+        private long cacheMaxBytes = ResultCache.DEFAULT_MAX_BYTES;
+        private boolean metrics = false;
+        private String metricsFile;
+        private int metricsSlowestTexts = 10;
+        private int textBudgetMillis = 0;
+        private int modelBudgetMillis = 0;
+        private int maxChunkChars = TextChunks.DEFAULT_MAX_CHARS;
+        private boolean warmUp = false;
+        private int sentenceCacheSize = 0;
+        private int batchSize = 0;
+        private boolean skipNonProse = true;
+        private List<String> includeTraits = Collections.emptyList();
+        private List<String> excludeTraits = Collections.emptyList();
+        private boolean worker = false;
+        private String workerDirectory;
+        private int workerIdleMinutes = (int) ProofreadWorker.DEFAULT_IDLE_TIMEOUT.toMinutes();
+        private int workerMaxHeapMb = WorkerClient.DEFAULT_MAX_HEAP_MB;
 
         public void setIgnore(List<String> ignore) {
             this.ignore = Objects.requireNonNull(ignore);
         }
 
+        public void setIgnoreFiles(List<String> ignoreFiles) {
+            this.ignoreFiles = Objects.requireNonNull(ignoreFiles);
+        }
+
+        public void setDictionaries(List<String> dictionaries) {
+            this.dictionaries = Objects.requireNonNull(dictionaries);
+        }
+
         public void setDocstrings(boolean check) {
             this.docstrings = check;
         }
@@ -56,46 +119,523 @@ public final class SpellCheckValidator extends AbstractValidator {
             this.limit = limit;
         }
 
+        public void setMaxEditDistance(int maxEditDistance) {
+            this.maxEditDistance = maxEditDistance;
+        }
+
+        public void setSuggestionBudgetMillis(int suggestionBudgetMillis) {
+            this.suggestionBudgetMillis = suggestionBudgetMillis;
+        }
+
         public void setLanguage(String language) {
             this.language = Objects.requireNonNull(language);
         }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public void setCacheDirectory(String cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+        }
+
+        public void setCacheMaxBytes(long cacheMaxBytes) {
+            this.cacheMaxBytes = cacheMaxBytes;
+        }
+
+        public void setMetrics(boolean metrics) {
+            this.metrics = metrics;
+        }
+
+        public void setMetricsFile(String metricsFile) {
+            this.metricsFile = metricsFile;
+        }
+
+        public void setMetricsSlowestTexts(int metricsSlowestTexts) {
+            this.metricsSlowestTexts = metricsSlowestTexts;
+        }
+
+        public void setTextBudgetMillis(int textBudgetMillis) {
+            this.textBudgetMillis = textBudgetMillis;
+        }
+
+        public void setModelBudgetMillis(int modelBudgetMillis) {
+            this.modelBudgetMillis = modelBudgetMillis;
+        }
+
+        public void setMaxChunkChars(int maxChunkChars) {
+            this.maxChunkChars = maxChunkChars;
+        }
+
+        public void setWarmUp(boolean warmUp) {
+            this.warmUp = warmUp;
+        }
+
+        public void setSentenceCacheSize(int sentenceCacheSize) {
+            this.sentenceCacheSize = sentenceCacheSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public void setSkipNonProse(boolean skipNonProse) {
+            this.skipNonProse = skipNonProse;
+        }
+
+        public void setIncludeTraits(List<String> includeTraits) {
+            this.includeTraits = Objects.requireNonNull(includeTraits);
+        }
+
+        public void setExcludeTraits(List<String> excludeTraits) {
+            this.excludeTraits = Objects.requireNonNull(excludeTraits);
+        }
+
+        public void setWorker(boolean worker) {
+            this.worker = worker;
+        }
+
+        public void setWorkerDirectory(String workerDirectory) {
+            this.workerDirectory = workerDirectory;
+        }
+
+        public void setWorkerIdleMinutes(int workerIdleMinutes) {
+            this.workerIdleMinutes = workerIdleMinutes;
+        }
+
+        public void setWorkerMaxHeapMb(int workerMaxHeapMb) {
+            this.workerMaxHeapMb = workerMaxHeapMb;
+        }
+
+        String language() {
+            return Objects.requireNonNullElse(language, "en");
+        }
+
+        boolean docstrings() {
+            return docstrings;
+        }
+
+        int parallelism() {
+            return parallelism;
+        }
+
+        int maxChunkChars() {
+            return maxChunkChars;
+        }
+
+        int sentenceCacheSize() {
+            return sentenceCacheSize;
+        }
+
+        boolean worker() {
+            return worker;
+        }
     }
 
     // Maps metadata from the model into the validator config and instatiates Linter
     public static final class Provider extends ValidatorService.Provider {
         public Provider() {
-            super(SpellCheckValidator.class, configuration -> {
-                var mapper = new NodeMapper();
-                var cfg = mapper.deserialize(configuration, Config.class);
-                return new SpellCheckValidator(cfg);
-            });
+            super(SpellCheckValidator.class, SpellCheckValidator::create);
+        }
+    }
+
+    static SpellCheckValidator create(ObjectNode configuration) {
+        return new SpellCheckValidator(configuration, config(configuration));
+    }
+
+    /**
+     * Read a configuration without creating a validator, which reads files and opens caches.
+     *
+     * @param configuration configuration of the validator.
+     * @return deserialized configuration.
+     */
+    static Config config(ObjectNode configuration) {
+        return new NodeMapper().deserialize(configuration, Config.class);
+    }
+
+    /**
+     * Create the spec of the tools of a configuration, reading its ignore files and mapping its dictionaries.
+     *
+     * @param config configuration of the validator.
+     * @return spec of the tools the validator checks texts with.
+     */
+    static ToolSpec spec(Config config) {
+        List<String> entries = new ArrayList<>(config.ignore);
+        for (var file : config.ignoreFiles) {
+            entries.addAll(readIgnoreFile(Path.of(file)));
+        }
+        List<String> words = new ArrayList<>();
+        List<String> patterns = new ArrayList<>();
+        for (var entry : entries) {
+            (IgnorePatterns.isPattern(entry) ? patterns : words).add(entry);
+        }
+        List<ToolSpec.DictionaryFile> dictionaryFiles = new ArrayList<>();
+        for (var file : config.dictionaries) {
+            // Mapping is cheap, and fails fast on a missing or invalid file.
+            dictionaryFiles.add(ToolSpec.DictionaryFile.of(CompiledDictionary.open(Path.of(file))));
         }
+        return ToolSpec.spelling(config.language(), words, IgnorePatterns.compile(patterns), dictionaryFiles);
+    }
+
+    /**
+     * @param config configuration of the validator.
+     * @return computes the suggested replacements of each typo, as configured.
+     */
+    static Suggestions suggestions(Config config) {
+        return new Suggestions(config.limit, config.maxEditDistance, Duration.ofMillis(config.suggestionBudgetMillis));
+    }
+
+    /**
+     * @param config configuration of the validator.
+     * @param spec spec created from the configuration.
+     * @return fingerprint of every setting that affects the matches of a text.
+     */
+    static String fingerprint(Config config, ToolSpec spec) {
+        return ResultCache.fingerprint(ValidatorService.determineNameFromClass(SpellCheckValidator.class)
+                + ";" + spec + ";limit=" + config.limit
+                + ";maxEditDistance=" + config.maxEditDistance
+                + ";suggestionBudgetMillis=" + config.suggestionBudgetMillis
+                + ";maxChunkChars=" + config.maxChunkChars
+                + ";sentences=" + (config.sentenceCacheSize > 0));
     }
 
-    private SpellCheckValidator(Config config) {
-        var lang = Objects.requireNonNullElse(config.language, "en");
-        tool = new JLanguageTool(LanguageService.load(lang, getClass().getClassLoader()));
-        LanguageCheckingUtils.configureSpellcheck(tool, config.ignore);
+    private SpellCheckValidator(ObjectNode configuration, Config config) {
+        this.configuration = configuration;
+        this.spec = spec(config);
+        LOGGER.log(config.ignoreFiles.isEmpty() ? Level.FINE : Level.INFO,
+                () -> String.format("SpellCheck ignores %d words and %d patterns; compiled patterns use ~%d KiB",
+                        spec.ignore().size(),
+                        spec.ignorePatterns().size(),
+                        spec.ignorePatterns().estimatedBytes() / 1024));
+        for (var dictionary : spec.dictionaries()) {
+            LOGGER.info(() -> String.format("SpellCheck accepts %d words from `%s`",
+                    dictionary.open().size(),
+                    dictionary.path()));
+        }
         this.docstrings = config.docstrings;
         this.limit = config.limit;
+        this.suggestions = suggestions(config);
+        this.parallelism = config.parallelism;
+        this.fingerprint = fingerprint(config, spec);
+        this.cache = ResultCache.scope(config.cacheDirectory == null
+                ? null
+                : ResultCache.open(Path.of(config.cacheDirectory), config.cacheMaxBytes), fingerprint);
+        this.collectMetrics = config.metrics || config.metricsFile != null;
+        this.metricsFile = config.metricsFile == null ? null : Path.of(config.metricsFile);
+        this.metricsSlowestTexts = config.metricsSlowestTexts;
+        this.textBudget = Duration.ofMillis(config.textBudgetMillis);
+        this.modelBudget = Duration.ofMillis(config.modelBudgetMillis);
+        this.maxChunkChars = config.maxChunkChars;
+        this.sentenceCacheSize = config.sentenceCacheSize;
+        this.sentenceCache = config.sentenceCacheSize > 0 ? SentenceCache.shared(config.sentenceCacheSize) : null;
+        this.sentences = SentenceCache.scope(sentenceCache, fingerprint);
+        this.batchSize = config.batchSize;
+        this.filter = TextFilter.of(config.skipNonProse, config.includeTraits, config.excludeTraits);
+        this.worker = config.worker
+                ? WorkerClient.shared(config.workerDirectory,
+                        Duration.ofMinutes(config.workerIdleMinutes),
+                        config.workerMaxHeapMb)
+                : null;
+        if (config.warmUp && worker == null) {
+            // Load rules and dictionaries while the rest of the model is validated.
+            LanguageToolPool.shared().warmUp(spec);
+        }
+    }
+
+    // One word or pattern per line. Blank lines and lines starting with `#` are skipped.
+    private static List<String> readIgnoreFile(Path file) {
+        try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return lines.map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .toList();
+        } catch (IOException exc) {
+            throw new UncheckedIOException("Unable to read SpellCheck ignore file `" + file + "`", exc);
+        }
+    }
+
+    ObjectNode configuration() {
+        return configuration;
+    }
+
+    ToolSpec spec() {
+        return spec;
+    }
+
+    String fingerprint() {
+        return fingerprint;
+    }
+
+    ResultCache.Scope cache() {
+        return cache;
     }
 
     @Override
     public List<ValidationEvent> validate(Model model) {
+        return validate(model, new Budget(textBudget, modelBudget));
+    }
+
+    /**
+     * Validate a model within a given budget.
+     *
+     * @param model model to validate.
+     * @param budget limits the time spent checking texts.
+     * @return events of this validator for the model.
+     */
+    List<ValidationEvent> validate(Model model, Budget budget) {
+        return validate(model, text -> true, DocstringAnalysis.of(model), budget);
+    }
+
+    /**
+     * Validate a new version of a previously validated model, as described by {@link TextDiff#validate}.
+     *
+     * @param previous previously validated version of the model.
+     * @param previousEvents events from validating the previous version of the model.
+     * @param model model to validate.
+     * @return events of this validator for the model.
+     */
+    public List<ValidationEvent> validate(Model previous, List<ValidationEvent> previousEvents, Model model) {
+        return TextDiff.validate(getName(), previous, previousEvents, model,
+                changed -> validate(model, changed, null, new Budget(textBudget, modelBudget)));
+    }
+
+    private List<ValidationEvent> validate(
+            Model model,
+            Predicate<TextInstance> selected,
+            DocstringAnalysis analysis,
+            Budget budget
+    ) {
+        var metrics = new Metrics(getName(), collectMetrics, metricsSlowestTexts);
+        if (sentenceCache != null) {
+            metrics.observe(sentenceCache);
+        }
+        var textInstances = metrics.time(Metrics.Phase.TEXT_INDEX, () -> TextIndex.of(model).getTextInstances());
+        // Docstrings may already have been checked together with Proofread.
+        Map<TextInstance, TextChunks.Result<TextMatch>> analyzed = analysis == null
+                ? Map.of()
+                : analysis.spellingFor(this, metrics, budget);
+        // Events are collected per text, so that they are emitted in text order however the texts were checked.
+        Map<TextInstance, List<ValidationEvent>> eventsByText = new IdentityHashMap<>();
+        List<TextInstance> texts = new ArrayList<>();
+        for (var text : textInstances) {
+            if (!selected.test(text)) {
+                continue;
+            }
+            if (analyzed.containsKey(text)) {
+                cache.put(text, analyzed.get(text));
+                eventsByText.put(text, events(text, analyzed.get(text), budget));
+            } else if (this.docstrings || !isDocstring(text)) {
+                // Skip docstrings up front rather than checking them and discarding their typos.
+                var skipped = filter.skip(text);
+                if (skipped == null) {
+                    texts.add(text);
+                } else {
+                    metrics.skippedText(skipped);
+                }
+            }
+        }
+        var verdicts = new WordVerdicts(WORD_CACHE_SIZE);
+        List<Map.Entry<TextInstance, List<ValidationEvent>>> checked;
+        var session = worker == null
+                ? null
+                : worker.open(spec, suggestions, maxChunkChars, sentenceCacheSize, parallelism);
+        if (session != null) {
+            try (session) {
+                checked = checkInWorker(session, texts, verdicts, metrics, budget);
+            }
+        } else {
+            checked = ParallelTextChecker.check(batches(texts), parallelism, spec, metrics, (tool, batch) -> {
+                if (batch.size() == 1) {
+                    var text = batch.get(0);
+                    return List.of(Map.entry(text,
+                            metrics.timeText(text, () -> check(tool, text, verdicts, metrics, budget))));
+                }
+                return metrics.timeBatch(batch, () -> checkBatch(tool, batch, verdicts, metrics, budget));
+            });
+        }
+        for (var entry : checked) {
+            eventsByText.put(entry.getKey(), entry.getValue());
+        }
         List<ValidationEvent> results = new ArrayList<>();
-        var textIndex = TextIndex.of(model);
-        for (var text : textIndex.getTextInstances()) {
-            for (var match : LanguageCheckingUtils.getMatches(this.tool, text.getText())) {
-                var event = typoEvent(text, match, this.docstrings);
-                if (event != null) {
-                    results.add(event);
+        for (var text : textInstances) {
+            var events = eventsByText.get(text);
+            if (events != null) {
+                results.addAll(events);
+            }
+        }
+        results.addAll(budget.events(getName()));
+        cache.flush();
+        metrics.report(metricsFile);
+        return results;
+    }
+
+    // Groups consecutive short texts into batches of up to batchSize texts. Other texts are checked alone.
+    private List<List<TextInstance>> batches(List<TextInstance> texts) {
+        List<List<TextInstance>> batches = new ArrayList<>();
+        List<TextInstance> batch = new ArrayList<>();
+        for (var text : texts) {
+            if (batchSize > 1 && text.getText().length() <= BATCH_TEXT_MAX_CHARS) {
+                batch.add(text);
+                if (batch.size() == batchSize) {
+                    batches.add(batch);
+                    batch = new ArrayList<>();
+                }
+            } else {
+                if (!batch.isEmpty()) {
+                    batches.add(batch);
+                    batch = new ArrayList<>();
                 }
+                batches.add(List.of(text));
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    // Checks short texts with a single LanguageTool call, giving the same events as checking each alone.
+    private List<Map.Entry<TextInstance, List<ValidationEvent>>> checkBatch(
+            JLanguageTool tool,
+            List<TextInstance> batch,
+            WordVerdicts verdicts,
+            Metrics metrics,
+            Budget budget
+    ) {
+        List<TextChunks.Result<TextMatch>> results = new ArrayList<>(batch.size());
+        List<Integer> pending = new ArrayList<>();
+        for (var text : batch) {
+            if (text.getLocationType() != TextInstance.TextLocationType.APPLIED_TRAIT
+                    && verdicts.allKnown(tool, text.getText())) {
+                results.add(TextChunks.Result.complete(List.of(), text.getText().length()));
+                continue;
+            }
+            var cached = cache.get(text);
+            if (cached == null) {
+                pending.add(results.size());
+            }
+            results.add(cached);
+        }
+        if (!pending.isEmpty() && budget.expired(budget.textDeadline())) {
+            for (var i : pending) {
+                results.set(i, new TextChunks.Result<>(List.of(), 0, batch.get(i).getText().length()));
+            }
+        } else if (!pending.isEmpty()) {
+            List<String> texts = pending.stream().map(i -> batch.get(i).getText()).toList();
+            var matches = LanguageCheckingUtils.getBatchTextMatches(tool, texts, suggestions, metrics);
+            for (int i = 0; i < pending.size(); i++) {
+                var text = batch.get(pending.get(i));
+                var result = TextChunks.Result.complete(matches.get(i), text.getText().length());
+                cache.put(text, result);
+                results.set(pending.get(i), result);
+            }
+        }
+        List<Map.Entry<TextInstance, List<ValidationEvent>>> events = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            events.add(Map.entry(batch.get(i), events(batch.get(i), results.get(i), budget)));
+        }
+        return events;
+    }
+
+    private List<ValidationEvent> check(
+            JLanguageTool tool,
+            TextInstance text,
+            WordVerdicts verdicts,
+            Metrics metrics,
+            Budget budget
+    ) {
+        // Shape names, member names and namespaces are single identifiers. Most have no typos,
+        // which can be proven by looking up their words without running the full pipeline.
+        if (text.getLocationType() != TextInstance.TextLocationType.APPLIED_TRAIT
+                && verdicts.allKnown(tool, text.getText())) {
+            return List.of();
+        }
+        var deadline = budget.textDeadline();
+        return events(text, cache.computeIfAbsent(text, () -> LanguageCheckingUtils.getTextMatches(
+                tool, text.getText(), suggestions, metrics, maxChunkChars, deadline, sentences)), budget);
+    }
+
+    // Cached texts are answered here, and the others are sent to the worker in batches. If the worker fails,
+    // the texts it has not answered are checked in process.
+    private List<Map.Entry<TextInstance, List<ValidationEvent>>> checkInWorker(
+            WorkerClient.Session session,
+            List<TextInstance> texts,
+            WordVerdicts verdicts,
+            Metrics metrics,
+            Budget budget
+    ) {
+        List<List<ValidationEvent>> events = new ArrayList<>(texts.size());
+        List<TextInstance> pending = new ArrayList<>();
+        for (var text : texts) {
+            var cached = cache.get(text);
+            if (cached == null) {
+                pending.add(text);
+            }
+            events.add(cached == null ? null : events(text, cached, budget));
+        }
+        Map<TextInstance, List<ValidationEvent>> answered = new IdentityHashMap<>();
+        List<TextInstance> unanswered = List.of();
+        for (int from = 0; from < pending.size(); from += WorkerClient.BATCH_TEXTS) {
+            var batch = pending.subList(from, Math.min(pending.size(), from + WorkerClient.BATCH_TEXTS));
+            // Time the round trip of each batch, which the worker spends checking its texts.
+            var checked = metrics.timeBatch(batch, () -> {
+                var results = metrics.time(Metrics.Phase.CHECK, () -> session.check(batch.stream()
+                        .map(text -> new WorkerClient.Text(text.getText(),
+                                text.getLocationType() != TextInstance.TextLocationType.APPLIED_TRAIT))
+                        .toList(), budget));
+                if (results == null) {
+                    return List.<Map.Entry<TextInstance, List<ValidationEvent>>>of();
+                }
+                List<Map.Entry<TextInstance, List<ValidationEvent>>> batchEvents = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    var text = batch.get(i);
+                    cache.put(text, results.get(i));
+                    batchEvents.add(Map.entry(text, events(text, results.get(i), budget)));
+                }
+                return batchEvents;
+            });
+            if (checked.isEmpty()) {
+                unanswered = pending.subList(from, pending.size());
+                break;
+            }
+            for (var entry : checked) {
+                answered.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (!unanswered.isEmpty()) {
+            try (var lease = LanguageToolPool.shared().acquire(spec)) {
+                for (var text : unanswered) {
+                    answered.put(text, metrics.timeText(text,
+                            () -> check(lease.tool(), text, verdicts, metrics, budget)));
+                }
+            }
+        }
+        List<Map.Entry<TextInstance, List<ValidationEvent>>> checked = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            var text = texts.get(i);
+            checked.add(Map.entry(text, events.get(i) == null ? answered.get(text) : events.get(i)));
+        }
+        return checked;
+    }
+
+    private List<ValidationEvent> events(TextInstance text, TextChunks.Result<TextMatch> result, Budget budget) {
+        budget.record(text, result);
+        List<ValidationEvent> results = new ArrayList<>();
+        for (var match : result.matches()) {
+            var event = typoEvent(text, match, this.docstrings);
+            if (event != null) {
+                results.add(event);
             }
         }
         return results;
     }
 
-    private ValidationEvent typoEvent(TextInstance text, RuleMatch match, boolean checkDocstrings) {
+
+    private static boolean isDocstring(TextInstance text) {
+        return text.getLocationType() == TextInstance.TextLocationType.APPLIED_TRAIT
+                && text.getTrait().toShapeId().equals(DocumentationTrait.ID);
+    }
+
+    private ValidationEvent typoEvent(TextInstance text, TextMatch match, boolean checkDocstrings) {
         return switch (text.getLocationType()) {
             case APPLIED_TRAIT -> {
                 if (text.getTrait().toShapeId().equals(DocumentationTrait.ID) && !checkDocstrings) {
@@ -158,17 +698,17 @@ public final class SpellCheckValidator extends AbstractValidator {
         };
     }
 
-    private static List<String> computeSuggestions(String previous, RuleMatch match, int limit) {
+    static List<String> computeSuggestions(String previous, TextMatch match, int limit) {
         var builder = new StringBuilder();
-        if (match.getFromPos() != 0) {
-            builder.append(previous, 0, match.getFromPos());
+        if (match.fromPos() != 0) {
+            builder.append(previous, 0, match.fromPos());
         }
         builder.append("%s");
-        if (match.getToPos() != previous.length()) {
-            builder.append(previous, match.getToPos(), previous.length() - 1);
+        if (match.toPos() != previous.length()) {
+            builder.append(previous, match.toPos(), previous.length() - 1);
         }
         var template = builder.toString();
-        return match.getSuggestedReplacements()
+        return match.replacements()
                 .stream()
                 .map(String::toLowerCase)
                 .distinct()
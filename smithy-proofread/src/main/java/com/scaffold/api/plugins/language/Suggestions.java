@@ -0,0 +1,197 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.languagetool.rules.RuleMatch;
+
+/**
+ * Computes the replacements suggested for a misspelled word.
+ * <p>
+ * Nothing is computed when the limit is zero. Otherwise replacements come from
+ * one of two sources:
+ * <ul>
+ *     <li>By default, the replacements LanguageTool suggests for the match,
+ *     which it only computes when first requested.</li>
+ *     <li>If a maximum edit distance or a time budget is set, candidates are
+ *     generated one edit at a time (deletions, transpositions, substitutions,
+ *     then insertions) and looked up in the speller dictionary. Generation
+ *     stops as soon as {@code limit} distinct candidates are found, the edit
+ *     distance is exhausted, {@value #MAX_CANDIDATES} candidates have been
+ *     looked up, or the time budget runs out. The edit distance is at most
+ *     {@value #MAX_EDIT_DISTANCE}, since each further edit multiplies the
+ *     candidates by about 54 times the word length.</li>
+ * </ul>
+ * Suggestions are cached per misspelled word, since the same typo tends to
+ * repeat across a model.
+ */
+final class Suggestions {
+    static final Suggestions NONE = new Suggestions(0, 0, Duration.ZERO);
+    private static final int CACHE_SIZE = 10_000;
+    private static final int DEFAULT_MAX_EDIT_DISTANCE = 2;
+    static final int MAX_EDIT_DISTANCE = 2;
+    static final int MAX_CANDIDATES = 100_000;
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private final int limit;
+    private final int maxEditDistance;
+    private final long budgetNanos;
+    private final Map<String, List<String>> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * @param limit number of distinct (ignoring case) suggestions needed.
+     * @param maxEditDistance maximum edits between a word and a generated suggestion, at most
+     *                        {@value #MAX_EDIT_DISTANCE}, or zero to use LanguageTool's suggestions.
+     * @param budget maximum time spent generating suggestions for one word, or zero for no limit.
+     */
+    Suggestions(int limit, int maxEditDistance, Duration budget) {
+        this.limit = limit;
+        this.budgetNanos = budget.toNanos();
+        var distance = maxEditDistance > 0 || budgetNanos == 0 ? maxEditDistance : DEFAULT_MAX_EDIT_DISTANCE;
+        this.maxEditDistance = Math.min(distance, MAX_EDIT_DISTANCE);
+    }
+
+    /**
+     * @return number of distinct suggestions needed.
+     */
+    int limit() {
+        return limit;
+    }
+
+    /**
+     * @return maximum edits between a word and a generated suggestion, or zero to use LanguageTool's suggestions.
+     */
+    int maxEditDistance() {
+        return maxEditDistance;
+    }
+
+    /**
+     * @return maximum time spent generating suggestions for one word, or zero for no limit.
+     */
+    Duration budget() {
+        return Duration.ofNanos(budgetNanos);
+    }
+
+    /**
+     * Get the suggested replacements for a match.
+     *
+     * @param match match to get suggestions for.
+     * @param text text the match was found in.
+     * @return suggestions, holding at most {@code limit} values that are distinct ignoring case.
+     */
+    List<String> of(RuleMatch match, String text) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        var word = text.substring(match.getFromPos(), match.getToPos());
+        List<String> cached;
+        synchronized (cache) {
+            cached = cache.get(word);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        List<String> suggestions;
+        if (maxEditDistance > 0 && match.getRule() instanceof CodingSpellerRule speller) {
+            suggestions = generate(speller, word);
+        } else {
+            suggestions = distinct(match.getSuggestedReplacements());
+        }
+        synchronized (cache) {
+            cache.put(word, suggestions);
+        }
+        return suggestions;
+    }
+
+    // Keeps values up to and including the limit-th value that is distinct when lower-cased.
+    private List<String> distinct(Iterable<String> replacements) {
+        List<String> result = new ArrayList<>();
+        Set<String> distinct = new HashSet<>();
+        for (var replacement : replacements) {
+            if (distinct.size() == limit) {
+                break;
+            }
+            distinct.add(replacement.toLowerCase());
+            result.add(replacement);
+        }
+        return List.copyOf(result);
+    }
+
+    private List<String> generate(CodingSpellerRule speller, String word) {
+        var deadline = budgetNanos > 0 ? System.nanoTime() + budgetNanos : Long.MAX_VALUE;
+        Map<String, String> found = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+        seen.add(word);
+        Set<String> frontier = Set.of(word);
+        try {
+            for (int distance = 1; distance <= maxEditDistance && !frontier.isEmpty(); distance++) {
+                // Candidates at the maximum distance are never expanded, so they need not be kept.
+                Set<String> next = distance < maxEditDistance ? new LinkedHashSet<>() : Set.of();
+                for (var base : frontier) {
+                    for (var candidate : edits(base)) {
+                        if (System.nanoTime() > deadline || seen.size() > MAX_CANDIDATES) {
+                            return List.copyOf(found.values());
+                        }
+                        if (!seen.add(candidate)) {
+                            continue;
+                        }
+                        if (distance < maxEditDistance) {
+                            next.add(candidate);
+                        }
+                        if (speller.isKnownWord(candidate)) {
+                            found.putIfAbsent(candidate.toLowerCase(), candidate);
+                            if (found.size() == limit) {
+                                return List.copyOf(found.values());
+                            }
+                        }
+                    }
+                }
+                frontier = next;
+            }
+        } catch (IOException exc) {
+            throw new UncheckedIOException(exc);
+        }
+        return List.copyOf(found.values());
+    }
+
+    // All strings one edit away from a word, in a fixed order.
+    private static List<String> edits(String word) {
+        List<String> edits = new ArrayList<>();
+        var length = word.length();
+        for (int i = 0; i < length; i++) {
+            edits.add(word.substring(0, i) + word.substring(i + 1));
+        }
+        for (int i = 0; i < length - 1; i++) {
+            edits.add(word.substring(0, i) + word.charAt(i + 1) + word.charAt(i) + word.substring(i + 2));
+        }
+        for (int i = 0; i < length; i++) {
+            for (var c : ALPHABET) {
+                if (c != word.charAt(i)) {
+                    edits.add(word.substring(0, i) + c + word.substring(i + 1));
+                }
+            }
+        }
+        for (int i = 0; i <= length; i++) {
+            for (var c : ALPHABET) {
+                edits.add(word.substring(0, i) + c + word.substring(i));
+            }
+        }
+        return edits;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering the check of a single text by a validator.
+ */
+@Name("com.scaffold.flux.proofread.TextCheck")
+@Label("Proofread Text Check")
+@Category({"Flux", "Proofread"})
+@Description("Check of a single text of a Smithy model")
+final class TextCheckEvent extends jdk.jfr.Event {
+    @Label("Validator")
+    String validator;
+
+    @Label("Shape")
+    String shape;
+
+    @Label("Location")
+    @Description("Trait and property path, shape name, or namespace holding the text")
+    String location;
+
+    @Label("Length")
+    int length;
+
+    @Label("Results")
+    @Description("Number of validation events produced for the text, or of matches found when SpellCheck and"
+            + " Proofread check docstrings together")
+    int results;
+
+    @Label("Batch")
+    @Description("Number of texts checked together with this one, all covered by the same duration")
+    int batch;
+}
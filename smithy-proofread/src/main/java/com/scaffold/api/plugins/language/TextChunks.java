@@ -0,0 +1,187 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Splits long texts into chunks that are checked independently.
+ * <p>
+ * Chunks end at sentence or paragraph boundaries where possible, then at
+ * whitespace. Chunks never end inside markup, as reported by {@link MarkupScanner},
+ * so each chunk annotates the same way as the full text. A chunk is only longer
+ * than the maximum if no boundary allows a shorter one, for example inside a
+ * long code block.
+ */
+final class TextChunks {
+    static final int DEFAULT_MAX_CHARS = 10_000;
+
+    private TextChunks() { /* Utility Class */ }
+
+    /**
+     * Result of checking a text chunk by chunk.
+     *
+     * @param matches matches found in the checked chunks, with offsets into the full text.
+     * @param checkedChars number of characters checked, from the start of the text.
+     * @param length length of the full text.
+     */
+    record Result<M>(List<M> matches, int checkedChars, int length) {
+        Result {
+            matches = List.copyOf(matches);
+        }
+
+        static <M> Result<M> complete(List<M> matches, int length) {
+            return new Result<>(matches, length, length);
+        }
+
+        /**
+         * @return true if the whole text was checked.
+         */
+        boolean complete() {
+            return checkedChars == length;
+        }
+    }
+
+    /**
+     * Find the ends of the chunks of a text.
+     *
+     * @param text text to split.
+     * @param maxChars maximum length of a chunk, or zero to never split.
+     * @return exclusive end offsets of each chunk, in order. The last is the length of the text.
+     */
+    static int[] split(String text, int maxChars) {
+        var length = text.length();
+        if (maxChars <= 0 || length <= maxChars) {
+            return new int[] {length};
+        }
+        var boundaries = Boundaries.of(text);
+        var sentences = boundaries.sentences();
+        var words = boundaries.words();
+        List<Integer> ends = new ArrayList<>();
+        int start = 0;
+        while (length - start > maxChars) {
+            var limit = start + maxChars;
+            var end = sentences.previousSetBit(limit);
+            if (end <= start) {
+                end = words.previousSetBit(limit);
+            }
+            if (end <= start) {
+                // No boundary within the limit, so end at the first boundary after it.
+                var nextSentence = sentences.nextSetBit(limit);
+                var nextWord = words.nextSetBit(limit);
+                end = nextWord < 0 ? length : nextWord;
+                if (nextSentence >= 0 && nextSentence < end) {
+                    end = nextSentence;
+                }
+            }
+            ends.add(end);
+            start = end;
+        }
+        if (start < length || ends.isEmpty()) {
+            ends.add(length);
+        }
+        return ends.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Find the ends of the sentences and paragraphs of a text.
+     * <p>
+     * Sentences end after a {@code .}, {@code !} or {@code ?} that is followed by
+     * whitespace, and paragraphs at blank lines, outside of markup. Each
+     * sentence but the first starts with the whitespace that follows the
+     * previous one.
+     *
+     * @param text text to split.
+     * @return exclusive end offsets of each sentence, in order. The last is the length of the text.
+     */
+    static int[] sentences(String text) {
+        var sentences = Boundaries.of(text).sentences();
+        var ends = new int[sentences.cardinality() + 1];
+        int i = 0;
+        for (int end = sentences.nextSetBit(0); end >= 0; end = sentences.nextSetBit(end + 1)) {
+            ends[i++] = end;
+        }
+        ends[i] = text.length();
+        return ends;
+    }
+
+    // Offsets at which a chunk may end: after a sentence or paragraph, or before any whitespace.
+    private record Boundaries(BitSet sentences, BitSet words) {
+        static Boundaries of(String text) {
+            var sentences = new BitSet(text.length());
+            var words = new BitSet(text.length());
+            MarkupScanner.scan(text, new MarkupScanner.Sink() {
+                @Override
+                public void text(int start, int end) {
+                    for (int i = start; i < end - 1; i++) {
+                        var c = text.charAt(i);
+                        var next = text.charAt(i + 1);
+                        if (Character.isWhitespace(next)) {
+                            words.set(i + 1);
+                            if (c == '.' || c == '!' || c == '?' || (c == '\n' && next == '\n')) {
+                                sentences.set(i + 1);
+                            }
+                        }
+                    }
+                }
+
+                @Override
+                public void markup(int start, int end, String interpretAs) {}
+            });
+            return new Boundaries(sentences, words);
+        }
+    }
+
+    /**
+     * Check a text chunk by chunk until all chunks are checked or a deadline passes.
+     * <p>
+     * The deadline is checked before each chunk, so a check can overrun it by
+     * the time taken to check one chunk.
+     *
+     * @param text text to check.
+     * @param maxChars maximum length of a chunk, or zero to check the text at once.
+     * @param deadline value of {@link System#nanoTime()} after which no chunk is started.
+     * @param check checks a chunk given its text and its offset in the full text,
+     *              returning matches with offsets into the full text.
+     * @return matches of all checked chunks.
+     */
+    static <M> Result<M> check(String text, int maxChars, long deadline, BiFunction<String, Integer, List<M>> check) {
+        return check(text, maxChars, deadline, System::nanoTime, check);
+    }
+
+    /**
+     * Check a text chunk by chunk until all chunks are checked or a deadline passes on a clock.
+     *
+     * @param text text to check.
+     * @param maxChars maximum length of a chunk, or zero to check the text at once.
+     * @param deadline value of the clock after which no chunk is started.
+     * @param clock current time in nanoseconds.
+     * @param check checks a chunk given its text and its offset in the full text,
+     *              returning matches with offsets into the full text.
+     * @return matches of all checked chunks.
+     */
+    static <M> Result<M> check(
+            String text,
+            int maxChars,
+            long deadline,
+            LongSupplier clock,
+            BiFunction<String, Integer, List<M>> check
+    ) {
+        List<M> matches = new ArrayList<>();
+        int start = 0;
+        for (var end : split(text, maxChars)) {
+            if (clock.getAsLong() >= deadline) {
+                return new Result<>(matches, start, text.length());
+            }
+            matches.addAll(check.apply(start == 0 && end == text.length() ? text : text.substring(start, end), start));
+            start = end;
+        }
+        return new Result<>(matches, text.length(), text.length());
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.SourceLocation;
+import software.amazon.smithy.model.knowledge.KnowledgeIndex;
+import software.amazon.smithy.model.knowledge.TextIndex;
+import software.amazon.smithy.model.knowledge.TextInstance;
+import software.amazon.smithy.model.shapes.Shape;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.validation.ValidationEvent;
+
+/**
+ * Texts that differ between two versions of a model.
+ * <p>
+ * Texts are compared by shape: a shape is changed if it was added, or if the
+ * names or values of its texts differ from the previous model. Events found on
+ * unchanged shapes in the previous model still hold, so only the texts of
+ * changed shapes need checking. Those events are moved to the current location
+ * of their shape or trait, since edits elsewhere in a file move unchanged
+ * shapes. Namespace texts have no shape, so they are all checked again if the
+ * set of namespaces changed.
+ * <p>
+ * Every text is considered changed if the {@code validators} metadata of the
+ * two models differs, since the configuration of the linters may have changed.
+ * Texts that a time budget cut short in the previous run are also checked
+ * again, and {@code Budget} notes are never carried over.
+ * <p>
+ * The texts of each model are indexed by shape once, and the index is kept
+ * with the model, so diffing a model against its successor reuses the index
+ * built when it was itself the current model.
+ */
+final class TextDiff {
+    private final Model previous;
+    private final Model current;
+    private final boolean everything;
+    private final Set<ShapeId> changedShapes;
+    private final boolean namespacesChanged;
+
+    // Texts of a model by shape. Texts without a shape, that is namespaces, are keyed by null.
+    private static final class ShapeTexts implements KnowledgeIndex {
+        private final Map<ShapeId, Set<TextKey>> texts = new HashMap<>();
+
+        ShapeTexts(Model model) {
+            for (var text : TextIndex.of(model).getTextInstances()) {
+                var shape = text.getShape() == null ? null : text.getShape().getId();
+                texts.computeIfAbsent(shape, k -> new HashSet<>()).add(TextKey.of(text));
+            }
+        }
+
+        static Map<ShapeId, Set<TextKey>> of(Model model) {
+            return model.getKnowledge(ShapeTexts.class, ShapeTexts::new).texts;
+        }
+    }
+
+    // Identifies a text within its shape.
+    private record TextKey(TextInstance.TextLocationType type, ShapeId trait, List<String> path, String text) {
+        static TextKey of(TextInstance text) {
+            return new TextKey(
+                    text.getLocationType(),
+                    text.getTrait() == null ? null : text.getTrait().toShapeId(),
+                    text.getTraitPropertyPath(),
+                    text.getText());
+        }
+    }
+
+    private TextDiff(
+            Model previous,
+            Model current,
+            boolean everything,
+            Set<ShapeId> changedShapes,
+            boolean namespacesChanged
+    ) {
+        this.previous = previous;
+        this.current = current;
+        this.everything = everything;
+        this.changedShapes = changedShapes;
+        this.namespacesChanged = namespacesChanged;
+    }
+
+    /**
+     * Validate a new version of a previously validated model, only checking
+     * texts of shapes whose texts changed.
+     * <p>
+     * Events of the validator on shapes whose texts did not change are carried
+     * over from the previous events, moved to the current location of their
+     * shape or trait. Events of other validators are ignored. Every text is
+     * checked if the {@code validators} metadata changed. Texts that a time
+     * budget cut short are checked again, and budget notes are not carried over.
+     *
+     * @param validator name of the validator.
+     * @param previous previously validated version of the model.
+     * @param previousEvents events from validating the previous version of the model.
+     * @param model model to validate.
+     * @param validate validates the texts of the model that a predicate accepts.
+     * @return events of the validator for the model.
+     */
+    static List<ValidationEvent> validate(
+            String validator,
+            Model previous,
+            List<ValidationEvent> previousEvents,
+            Model model,
+            Function<Predicate<TextInstance>, List<ValidationEvent>> validate
+    ) {
+        var diff = of(previous, model).withUnchecked(previousEvents, validator);
+        var results = diff.carryOver(previousEvents, validator);
+        results.addAll(validate.apply(diff::changed));
+        return results;
+    }
+
+    /**
+     * Compare the texts of two models.
+     *
+     * @param previous previous version of the model.
+     * @param current current version of the model.
+     * @return texts that differ.
+     */
+    static TextDiff of(Model previous, Model current) {
+        if (!previous.getMetadataProperty("validators").equals(current.getMetadataProperty("validators"))) {
+            return new TextDiff(previous, current, true, Set.of(), true);
+        }
+        var before = ShapeTexts.of(previous);
+        var after = ShapeTexts.of(current);
+        Set<ShapeId> changed = new HashSet<>();
+        for (var entry : after.entrySet()) {
+            if (!entry.getValue().equals(before.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        var namespacesChanged = !Objects.equals(before.get(null), after.get(null));
+        changed.remove(null);
+        return new TextDiff(previous, current, false, changed, namespacesChanged);
+    }
+
+    /**
+     * Also consider changed the texts that a validator did not fully check in the previous run.
+     * <p>
+     * A budget note on a shape marks the texts of that shape. A note without a
+     * shape does not name every text it covers, so every text is checked again.
+     *
+     * @param events events from validating the previous model.
+     * @param validator name of the validator whose budget notes to read.
+     * @return diff that also covers the texts cut short by the validator's budget.
+     */
+    TextDiff withUnchecked(List<ValidationEvent> events, String validator) {
+        if (everything) {
+            return this;
+        }
+        Set<ShapeId> changed = new HashSet<>(changedShapes);
+        for (var event : events) {
+            if (!isBudgetNote(event, validator)) {
+                continue;
+            }
+            var shape = event.getShapeId().orElse(null);
+            if (shape == null) {
+                return new TextDiff(previous, current, true, Set.of(), true);
+            }
+            changed.add(shape);
+        }
+        return new TextDiff(previous, current, false, changed, namespacesChanged);
+    }
+
+    private static boolean isBudgetNote(ValidationEvent event, String validator) {
+        return event.getId().equals(validator + ".Budget");
+    }
+
+    /**
+     * @param text text of the current model.
+     * @return true if the text needs checking.
+     */
+    boolean changed(TextInstance text) {
+        if (everything) {
+            return true;
+        }
+        if (text.getShape() == null) {
+            return namespacesChanged;
+        }
+        return changedShapes.contains(text.getShape().getId());
+    }
+
+    /**
+     * Select the previous events of a validator that still hold for the current model.
+     *
+     * @param events events from validating the previous model.
+     * @param validator name of the validator whose events to select. Other events are dropped.
+     * @return events on unchanged texts, at their location in the current model.
+     */
+    List<ValidationEvent> carryOver(List<ValidationEvent> events, String validator) {
+        List<ValidationEvent> result = new ArrayList<>();
+        if (everything) {
+            return result;
+        }
+        for (var event : events) {
+            if (!event.getId().equals(validator) && !event.getId().startsWith(validator + ".")
+                    || isBudgetNote(event, validator)) {
+                continue;
+            }
+            var shape = event.getShapeId().orElse(null);
+            if (shape == null) {
+                if (!namespacesChanged) {
+                    result.add(event);
+                }
+            } else if (!changedShapes.contains(shape)) {
+                current.getShape(shape).ifPresent(s -> result.add(relocate(event, s)));
+            }
+        }
+        return result;
+    }
+
+    // Events are located at their shape or at one of its traits.
+    private ValidationEvent relocate(ValidationEvent event, Shape shape) {
+        var before = previous.getShape(shape.getId()).orElse(null);
+        if (before == null) {
+            return event;
+        }
+        var location = event.getSourceLocation();
+        if (location.equals(before.getSourceLocation())) {
+            return moveTo(event, shape.getSourceLocation());
+        }
+        for (var trait : before.getAllTraits().values()) {
+            if (location.equals(trait.getSourceLocation())) {
+                return shape.findTrait(trait.toShapeId())
+                        .map(t -> moveTo(event, t.getSourceLocation()))
+                        .orElse(event);
+            }
+        }
+        return event;
+    }
+
+    private static ValidationEvent moveTo(ValidationEvent event, SourceLocation location) {
+        return location.equals(event.getSourceLocation()) ? event : event.toBuilder().sourceLocation(location).build();
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import software.amazon.smithy.model.knowledge.TextInstance;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.traits.DocumentationTrait;
+import software.amazon.smithy.model.traits.PatternTrait;
+
+/**
+ * Skips trait values that are not prose before they are checked.
+ * <p>
+ * Trait values such as URLs, ARNs, UUIDs, timestamps, base64 data, JSON documents
+ * and {@code @pattern} regular expressions are expensive to check and only
+ * produce noise. Each value is classified with a single scan over its characters.
+ * Docstrings, shape names and namespaces are never classified.
+ * <p>
+ * Texts under an excluded trait or property path are always skipped, and texts
+ * under an included one are always checked, which takes precedence. Entries are
+ * a trait ID, optionally followed by a property path whose segments are separated
+ * by dots, such as {@code smithy.api#examples} or {@code com.example#links.href}.
+ * An entry matches the texts at its path and below it.
+ */
+final class TextFilter {
+    private static final int BASE64_MIN_CHARS = 20;
+    // Random base64 rarely has this many lower-case letters in a row, while words in identifiers often do.
+    private static final int BASE64_MAX_LOWER_RUN = 6;
+    private static final int UUID_CHARS = 36;
+
+    private final boolean classify;
+    private final List<TraitPath> includes;
+    private final List<TraitPath> excludes;
+
+    /**
+     * Reasons to skip a text.
+     */
+    enum Reason {
+        EXCLUDED("excluded"),
+        PATTERN("pattern"),
+        URL("url"),
+        ARN("arn"),
+        UUID("uuid"),
+        TIMESTAMP("timestamp"),
+        BASE64("base64"),
+        JSON("json");
+
+        private final String key;
+
+        Reason(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return name of the reason in reported metrics.
+         */
+        String key() {
+            return key;
+        }
+    }
+
+    private record TraitPath(ShapeId trait, List<String> path) {
+        static TraitPath parse(String entry) {
+            var hash = entry.indexOf('#');
+            var dot = entry.indexOf('.', Math.max(hash, 0));
+            if (hash < 0 || dot < 0) {
+                return new TraitPath(ShapeId.from(entry), List.of());
+            }
+            return new TraitPath(ShapeId.from(entry.substring(0, dot)), List.of(entry.substring(dot + 1).split("\\.")));
+        }
+
+        boolean matches(TextInstance text) {
+            var textPath = text.getTraitPropertyPath();
+            return text.getTrait().toShapeId().equals(trait)
+                    && textPath.size() >= path.size()
+                    && textPath.subList(0, path.size()).equals(path);
+        }
+    }
+
+    private TextFilter(boolean classify, List<TraitPath> includes, List<TraitPath> excludes) {
+        this.classify = classify;
+        this.includes = includes;
+        this.excludes = excludes;
+    }
+
+    /**
+     * Create a filter.
+     *
+     * @param classify whether to skip trait values that are classified as not prose.
+     * @param includes trait IDs and property paths whose texts are always checked.
+     * @param excludes trait IDs and property paths whose texts are never checked.
+     * @return filter.
+     * @throws software.amazon.smithy.model.shapes.ShapeIdSyntaxException if an entry is not a valid trait ID.
+     */
+    static TextFilter of(boolean classify, Collection<String> includes, Collection<String> excludes) {
+        return new TextFilter(classify, parse(includes), parse(excludes));
+    }
+
+    private static List<TraitPath> parse(Collection<String> entries) {
+        List<TraitPath> paths = new ArrayList<>(entries.size());
+        for (var entry : entries) {
+            paths.add(TraitPath.parse(entry));
+        }
+        return paths;
+    }
+
+    /**
+     * Decide whether to skip a text.
+     *
+     * @param text text to check.
+     * @return why the text is skipped, or null if it should be checked.
+     */
+    Reason skip(TextInstance text) {
+        if (text.getLocationType() != TextInstance.TextLocationType.APPLIED_TRAIT) {
+            return null;
+        }
+        for (var include : includes) {
+            if (include.matches(text)) {
+                return null;
+            }
+        }
+        for (var exclude : excludes) {
+            if (exclude.matches(text)) {
+                return Reason.EXCLUDED;
+            }
+        }
+        var trait = text.getTrait().toShapeId();
+        if (!classify || trait.equals(DocumentationTrait.ID)) {
+            return null;
+        }
+        if (trait.equals(PatternTrait.ID)) {
+            return Reason.PATTERN;
+        }
+        return classify(text.getText());
+    }
+
+    /**
+     * Classify a text that is not prose.
+     *
+     * @param text text to classify.
+     * @return kind of the text, or null if it may be prose.
+     */
+    static Reason classify(String text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return null;
+        }
+        var first = text.charAt(start);
+        var last = text.charAt(end - 1);
+        // Single scan collecting what the checks below need.
+        boolean whitespace = false;
+        boolean quote = false;
+        boolean upper = false;
+        boolean lower = false;
+        int digits = 0;
+        int lowerRun = 0;
+        int maxLowerRun = 0;
+        boolean base64 = true;
+        boolean base64Symbol = false;
+        int colons = 0;
+        int padding = 0;
+        for (int i = start; i < end; i++) {
+            var c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                whitespace = true;
+            } else if (c == '"') {
+                quote = true;
+            } else if (c == ':') {
+                colons++;
+            }
+            lowerRun = c >= 'a' && c <= 'z' ? lowerRun + 1 : 0;
+            maxLowerRun = Math.max(maxLowerRun, lowerRun);
+            if (c >= 'A' && c <= 'Z') {
+                upper = true;
+            } else if (c >= 'a' && c <= 'z') {
+                lower = true;
+            } else if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '=') {
+                padding++;
+            } else if (c == '+' || c == '/' || c == '-' || c == '_') {
+                base64Symbol |= c == '+' || c == '/';
+            } else {
+                base64 = false;
+            }
+            // Padding is only allowed at the end.
+            if (padding > 0 && c != '=') {
+                base64 = false;
+            }
+        }
+        if ((first == '{' && last == '}' && colons > 0 && quote) || (first == '[' && last == ']' && quote)) {
+            return Reason.JSON;
+        }
+        if (whitespace) {
+            return null;
+        }
+        var length = end - start;
+        if (colons >= 5 && text.startsWith("arn:", start)) {
+            return Reason.ARN;
+        }
+        if (isUrl(text, start, end)) {
+            return Reason.URL;
+        }
+        if (length == UUID_CHARS && isUuid(text, start)) {
+            return Reason.UUID;
+        }
+        if (isTimestamp(text, start, end)) {
+            return Reason.TIMESTAMP;
+        }
+        // Without padding or symbols, only mixed-case text with digits and no long words looks encoded.
+        var encoded = padding > 0 || base64Symbol
+                || (upper && lower && digits >= 2 && maxLowerRun <= BASE64_MAX_LOWER_RUN);
+        if (base64 && encoded && length >= BASE64_MIN_CHARS && length % 4 == 0 && padding <= 2) {
+            return Reason.BASE64;
+        }
+        return null;
+    }
+
+    // A scheme of letters, digits, `+`, `-` and `.`, starting with a letter, then `://`.
+    private static boolean isUrl(String text, int start, int end) {
+        if (!isAsciiLetter(text.charAt(start))) {
+            return false;
+        }
+        for (int i = start + 1; i < end; i++) {
+            var c = text.charAt(i);
+            if (c == ':') {
+                return text.startsWith("//", i + 1) && i + 3 < end;
+            } else if (!isAsciiLetter(c) && !isDigit(c) && c != '+' && c != '-' && c != '.') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    // Hexadecimal digits in groups of 8, 4, 4, 4 and 12, separated by dashes.
+    private static boolean isUuid(String text, int start) {
+        for (int i = 0; i < UUID_CHARS; i++) {
+            var c = text.charAt(start + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return false;
+                }
+            } else if (!isDigit(c) && !((c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // An ISO 8601 date, such as 2024-01-31, optionally followed by a time and offset.
+    private static boolean isTimestamp(String text, int start, int end) {
+        if (end - start < 10) {
+            return false;
+        }
+        for (int i = 0; i < 10; i++) {
+            var c = text.charAt(start + i);
+            if ((i == 4 || i == 7) ? c != '-' : !isDigit(c)) {
+                return false;
+            }
+        }
+        for (int i = start + 10; i < end; i++) {
+            var c = text.charAt(i);
+            if (!isDigit(c) && c != 'T' && c != 'Z' && c != ':' && c != '.' && c != '+' && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.List;
+import org.languagetool.rules.RuleMatch;
+
+/**
+ * The parts of a {@link RuleMatch} needed to build validation events.
+ * <p>
+ * Unlike a {@link RuleMatch}, a text match holds no reference to the rule or
+ * the analyzed sentence, so it can be cached and stored on disk.
+ *
+ * @param fromPos start of the matched text, inclusive.
+ * @param toPos end of the matched text, exclusive.
+ * @param message message describing the problem.
+ * @param replacements suggested replacements for the matched text.
+ */
+record TextMatch(int fromPos, int toPos, String message, List<String> replacements) {
+
+    TextMatch {
+        replacements = List.copyOf(replacements);
+    }
+
+    /**
+     * Capture a rule match.
+     *
+     * @param match match to capture.
+     * @param replacements suggested replacements to keep for the match.
+     * @return captured match.
+     */
+    static TextMatch of(RuleMatch match, List<String> replacements) {
+        return new TextMatch(match.getFromPos(), match.getToPos(), match.getMessage(), replacements);
+    }
+
+    /**
+     * Move a match between texts, for example from part of a text to the full text.
+     *
+     * @param offset offset of the text the match was found in, relative to the target text.
+     * @return the match at its position in the target text.
+     */
+    TextMatch shifted(int offset) {
+        return offset == 0 ? this : new TextMatch(fromPos + offset, toPos + offset, message, replacements);
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering the creation and warm-up of a pooled LanguageTool instance.
+ */
+@Name("com.scaffold.flux.proofread.ToolCreation")
+@Label("Proofread Tool Creation")
+@Category({"Flux", "Proofread"})
+@Description("Creation and warm-up of a LanguageTool instance")
+final class ToolCreationEvent extends jdk.jfr.Event {
+    @Label("Language")
+    String language;
+
+    @Label("Mode")
+    String mode;
+}
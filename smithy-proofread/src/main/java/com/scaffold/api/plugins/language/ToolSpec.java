@@ -0,0 +1,145 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import org.languagetool.JLanguageTool;
+import org.languagetool.Language;
+import org.languagetool.rules.spelling.SpellingCheckRule;
+
+/**
+ * Effective configuration of a {@link JLanguageTool}.
+ * <p>
+ * Two validators with equal specs can share tool instances, so every setting
+ * that changes how a tool is configured must be part of this record.
+ *
+ * @param languageCode code of the language to check.
+ * @param mode which family of rules the tool runs.
+ * @param ignore tokens ignored by the spellchecker, sorted and de-duplicated.
+ * @param ignorePatterns patterns of tokens ignored by the spellchecker.
+ * @param dictionaries compiled dictionaries of words accepted by the spellchecker, with the checksum of
+ *                     their words, so that recompiled dictionaries get new tools.
+ * @param rules grammar rules used by the tool. Spellcheck-only tools always use the default rules.
+ */
+record ToolSpec(
+        String languageCode,
+        Mode mode,
+        List<String> ignore,
+        IgnorePatterns ignorePatterns,
+        List<DictionaryFile> dictionaries,
+        RuleSelection rules
+) {
+
+    /**
+     * A compiled dictionary used by a tool.
+     *
+     * @param path real path of the dictionary file.
+     * @param checksum checksum of the words in the file, see {@link CompiledDictionary#checksum()}.
+     */
+    record DictionaryFile(Path path, long checksum) {
+        static DictionaryFile of(CompiledDictionary dictionary) {
+            return new DictionaryFile(dictionary.path(), dictionary.checksum());
+        }
+
+        // The file may have been recompiled since the spec was created, in which case it no longer matches.
+        CompiledDictionary open() {
+            var dictionary = CompiledDictionary.open(path);
+            if (dictionary.checksum() != checksum) {
+                throw new IllegalStateException("Compiled dictionary `" + path
+                        + "` changed after the validator using it was created");
+            }
+            return dictionary;
+        }
+    }
+
+    /**
+     * Rules enabled on a tool.
+     */
+    enum Mode {
+        /** Only spellcheck rules are active. */
+        SPELLING,
+        /** All rules except spellcheck rules are active. */
+        GRAMMAR,
+        /**
+         * All rules are active, and overlapping matches are kept so spelling
+         * and grammar matches can be separated after a single check.
+         */
+        ALL
+    }
+
+    ToolSpec {
+        Objects.requireNonNull(languageCode);
+        Objects.requireNonNull(mode);
+        Objects.requireNonNull(ignorePatterns);
+        Objects.requireNonNull(rules);
+        ignore = ignore.stream().distinct().sorted().toList();
+        dictionaries = List.copyOf(dictionaries);
+    }
+
+    static ToolSpec spelling(String languageCode, List<String> ignore) {
+        return spelling(languageCode, ignore, IgnorePatterns.EMPTY);
+    }
+
+    static ToolSpec spelling(String languageCode, List<String> ignore, IgnorePatterns ignorePatterns) {
+        return spelling(languageCode, ignore, ignorePatterns, List.of());
+    }
+
+    static ToolSpec spelling(
+            String languageCode,
+            List<String> ignore,
+            IgnorePatterns ignorePatterns,
+            List<DictionaryFile> dictionaries
+    ) {
+        return new ToolSpec(languageCode, Mode.SPELLING, ignore, ignorePatterns, dictionaries, RuleSelection.DEFAULT);
+    }
+
+    static ToolSpec grammar(String languageCode) {
+        return grammar(languageCode, RuleSelection.DEFAULT);
+    }
+
+    static ToolSpec grammar(String languageCode, RuleSelection rules) {
+        return new ToolSpec(languageCode, Mode.GRAMMAR, List.of(), IgnorePatterns.EMPTY, List.of(), rules);
+    }
+
+    static ToolSpec all(
+            String languageCode,
+            List<String> ignore,
+            IgnorePatterns ignorePatterns,
+            List<DictionaryFile> dictionaries,
+            RuleSelection rules
+    ) {
+        return new ToolSpec(languageCode, Mode.ALL, ignore, ignorePatterns, dictionaries, rules);
+    }
+
+    /**
+     * Create a new tool matching this spec.
+     *
+     * @param language language instance to build the tool over.
+     * @return configured tool.
+     */
+    JLanguageTool create(Language language) {
+        var tool = new JLanguageTool(language);
+        var words = dictionaries.stream().map(DictionaryFile::open).toList();
+        switch (mode) {
+            case SPELLING -> LanguageCheckingUtils.configureSpellcheck(tool, ignore, ignorePatterns, words);
+            case GRAMMAR -> {
+                rules.configure(tool);
+                for (var rule : tool.getAllActiveRules()) {
+                    if (rule instanceof SpellingCheckRule) {
+                        tool.disableRule(rule.getId());
+                    }
+                }
+            }
+            case ALL -> {
+                rules.configure(tool);
+                LanguageCheckingUtils.configureIgnores(tool, ignore, ignorePatterns, words);
+                tool.setCleanOverlappingMatches(false);
+            }
+        }
+        return tool;
+    }
+}
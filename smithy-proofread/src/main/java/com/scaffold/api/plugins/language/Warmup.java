@@ -0,0 +1,65 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.utils.SmithyInternalApi;
+
+/**
+ * Training run for the class data sharing archive of this plugin.
+ * <p>
+ * Validates a small model with both linters, so that the JVM loads every class
+ * a typical validation needs: the model loader, the linters, LanguageTool and
+ * its rules. Running this with {@code -XX:ArchiveClassesAtExit} writes those
+ * classes to an archive that later JVMs can map with {@code -XX:SharedArchiveFile}
+ * instead of loading and verifying them again.
+ */
+@SmithyInternalApi
+public final class Warmup {
+    private static final String MODEL = """
+            $version: "2"
+            metadata validators = [
+                {
+                    name: "SpellCheck"
+                }
+                {
+                    name: "Proofread"
+                }
+            ]
+            namespace com.scaffold.warmup
+
+            /// Gets a `Widget` by its ID. See the [docs](https://example.com/docs).
+            ///
+            /// Returns an error if there is no widgets with the ID.
+            @readonly
+            operation GetWidgett {
+                input := {
+                    /// The ID of the widget to get.
+                    @required
+                    widgetId: String
+                }
+                output := {
+                    /// The widget.
+                    widget: Widget
+                }
+            }
+
+            /// A widget.
+            structure Widget {
+                /// The name of the wigdet.
+                name: String
+            }
+            """;
+
+    private Warmup() {}
+
+    public static void main(String[] args) {
+        var result = Model.assembler(Warmup.class.getClassLoader())
+                .discoverModels(Warmup.class.getClassLoader())
+                .addUnparsedModel("warmup.smithy", MODEL)
+                .assemble();
+        System.out.println("Proofread warm-up found " + result.getValidationEvents().size() + " events");
+    }
+}
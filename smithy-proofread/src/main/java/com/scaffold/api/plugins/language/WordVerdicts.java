@@ -0,0 +1,103 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.languagetool.JLanguageTool;
+
+/**
+ * Fast path for checking the spelling of single identifiers.
+ * <p>
+ * Identifiers such as shape names are split with the language's word tokenizer
+ * and each word is looked up directly in the {@link CodingSpellerRule}, which
+ * skips sentence splitting, tagging and disambiguation. Verdicts are memoized
+ * in a bounded least-recently-used cache, since the same words repeat across
+ * many shapes.
+ * <p>
+ * The fast path only ever proves that an identifier has no typos. If any word
+ * is unknown, the caller must run the full check so that the reported matches
+ * and suggestions are exactly those of the full pipeline.
+ */
+final class WordVerdicts {
+    private final Map<String, Boolean> known;
+    // Weak, so that tools dropped from their pool are not kept for the lifetime of the verdicts.
+    private final Map<JLanguageTool, CodingSpellerRule> spellers = new WeakHashMap<>();
+
+    /**
+     * @param capacity maximum number of word verdicts to retain.
+     */
+    WordVerdicts(int capacity) {
+        this.known = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Check if every word of an identifier is known.
+     *
+     * @param tool tool whose speller and tokenizer to use.
+     * @param identifier identifier to check.
+     * @return true if the full check would report no typos for the identifier.
+     */
+    boolean allKnown(JLanguageTool tool, String identifier) {
+        var speller = speller(tool);
+        if (speller == null) {
+            return false;
+        }
+        for (var word : tool.getLanguage().getWordTokenizer().tokenize(identifier)) {
+            if (hasLetter(word) && !isKnown(speller, word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isKnown(CodingSpellerRule speller, String word) {
+        Boolean verdict;
+        synchronized (known) {
+            verdict = known.get(word);
+        }
+        if (verdict == null) {
+            try {
+                verdict = speller.isKnownWord(word);
+            } catch (IOException exc) {
+                throw new UncheckedIOException(exc);
+            }
+            synchronized (known) {
+                known.put(word, verdict);
+            }
+        }
+        return verdict;
+    }
+
+    private CodingSpellerRule speller(JLanguageTool tool) {
+        synchronized (spellers) {
+            return spellers.computeIfAbsent(tool, t -> {
+                for (var rule : t.getAllActiveRules()) {
+                    if (rule instanceof CodingSpellerRule codingSpellerRule) {
+                        return codingSpellerRule;
+                    }
+                }
+                return null;
+            });
+        }
+    }
+
+    private static boolean hasLetter(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.isLetter(word.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URISyntaxException;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import software.amazon.smithy.model.node.ArrayNode;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+
+/**
+ * Sends texts to a {@link ProofreadWorker}, starting one if none is running.
+ * <p>
+ * All validators in a process that use the same worker directory share one
+ * client, and the settings of the first one to use it apply. A started worker
+ * outlives the process that started it, so later builds, even in other
+ * processes, find it through the file it publishes in the directory. The
+ * directory must belong to the current user and must not be writable by
+ * anyone else, and so must the published file, so that no other user can
+ * direct texts to a process of their own.
+ * <p>
+ * A validator opens a {@link Session} for each run. The session registers the
+ * tool spec of the validator once, then sends its texts in batches over the
+ * same connection, naming the spec by the identifier the worker returned.
+ * <p>
+ * The client never fails a validation. If no worker answers, or a worker
+ * cannot be started, sessions are not opened, or stop returning results, so
+ * that the validator checks the texts in process, and no worker is tried
+ * again for a minute.
+ */
+final class WorkerClient {
+    static final int DEFAULT_MAX_HEAP_MB = 2048;
+    // Texts sent per request. Small enough that a failed worker costs little work, large enough to amortize
+    // the round trip.
+    static final int BATCH_TEXTS = 64;
+    private static final Logger LOGGER = Logger.getLogger(WorkerClient.class.getName());
+    private static final Map<Path, WorkerClient> CLIENTS = new ConcurrentHashMap<>();
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration RETRY_AFTER = Duration.ofMinutes(1);
+    private static final int POLL_MILLIS = 100;
+    private static final int CONNECT_TIMEOUT_MILLIS = 1_000;
+    // Long enough for the worker to create a tool and check a long text.
+    private static final int READ_TIMEOUT_MILLIS = 300_000;
+
+    private final Path directory;
+    private final Duration idleTimeout;
+    private final int maxHeapMb;
+    private Endpoint endpoint;
+    private long retryAt = System.nanoTime();
+
+    private record Endpoint(int port, String token) {}
+
+    /**
+     * A text to check in the worker.
+     *
+     * @param text text to check.
+     * @param identifier whether the text is a single identifier, which is looked up word by word first.
+     */
+    record Text(String text, boolean identifier) {}
+
+    private WorkerClient(Path directory, Duration idleTimeout, int maxHeapMb) {
+        this.directory = directory;
+        this.idleTimeout = idleTimeout;
+        this.maxHeapMb = maxHeapMb;
+    }
+
+    /**
+     * Get the client of a worker directory.
+     *
+     * @param directory directory of the worker, or null to use a directory per user in the temporary directory.
+     * @param idleTimeout time after which a worker started by the client exits if it gets no requests.
+     * @param maxHeapMb maximum heap of a worker started by the client, in MiB.
+     * @return client shared by all validators using the directory.
+     */
+    static WorkerClient shared(String directory, Duration idleTimeout, int maxHeapMb) {
+        var path = directory == null
+                ? Path.of(System.getProperty("java.io.tmpdir"), "flux-proofread-" + System.getProperty("user.name"))
+                : Path.of(directory);
+        return CLIENTS.computeIfAbsent(path.toAbsolutePath().normalize(),
+                p -> new WorkerClient(p, idleTimeout, maxHeapMb));
+    }
+
+    /**
+     * Open a session with the worker, starting one if none is running.
+     *
+     * @param spec configuration of the tools to check texts with.
+     * @param suggestions computes the suggested replacements to keep per match.
+     * @param maxChunkChars maximum length of each chunk, or zero to check each text at once.
+     * @param sentenceCacheSize size of the sentence cache of the worker, or zero to check whole texts.
+     * @param parallelism number of threads the worker may use to check a batch.
+     * @return open session, or null if texts must be checked in process.
+     */
+    Session open(ToolSpec spec, Suggestions suggestions, int maxChunkChars, int sentenceCacheSize, int parallelism) {
+        var endpoint = endpoint();
+        if (endpoint == null) {
+            return null;
+        }
+        Connection connection = null;
+        try {
+            connection = new Connection(endpoint);
+            var registered = connection.exchange(Node.objectNode()
+                    .withMember("operation", "register")
+                    .withMember("spec", ProofreadWorker.encodeSpec(spec)));
+            var settings = Node.objectNode()
+                    .withMember("operation", "check")
+                    .withMember("spec", registered.expectStringMember("spec").getValue())
+                    .withMember("suggestions", ProofreadWorker.encodeSuggestions(suggestions))
+                    .withMember("maxChunkChars", maxChunkChars)
+                    .withMember("sentenceCacheSize", sentenceCacheSize)
+                    .withMember("parallelism", parallelism);
+            return new Session(connection, settings);
+        } catch (IOException | RuntimeException exc) {
+            if (connection != null) {
+                connection.close();
+            }
+            disconnect(endpoint, exc);
+            return null;
+        }
+    }
+
+    /**
+     * Texts sent to the worker by one validator run, over a single connection.
+     */
+    final class Session implements AutoCloseable {
+        private final Connection connection;
+        private final ObjectNode settings;
+        private boolean failed;
+
+        private Session(Connection connection, ObjectNode settings) {
+            this.connection = connection;
+            this.settings = settings;
+        }
+
+        /**
+         * Check a batch of texts in the worker.
+         *
+         * @param texts texts to check.
+         * @param budget limits the time spent checking each text, and all texts.
+         * @return matches of every checked chunk of each text, in the order of {@code texts}, or null if the
+         *         worker failed and the texts must be checked in process.
+         */
+        List<TextChunks.Result<TextMatch>> check(List<Text> texts, Budget budget) {
+            if (failed) {
+                return null;
+            }
+            var request = settings.withMember("texts", texts.stream()
+                    .map(text -> Node.objectNode()
+                            .withMember("text", text.text())
+                            .withMember("identifier", text.identifier()))
+                    .collect(ArrayNode.collect()))
+                    .withMember("textBudgetNanos", budget.textNanos());
+            var remaining = budget.remainingNanos();
+            if (remaining != Long.MAX_VALUE) {
+                request = request.withMember("remainingNanos", remaining);
+            }
+            try {
+                var results = connection.exchange(request).expectArrayMember("results")
+                        .getElementsAs(ObjectNode.class);
+                if (results.size() != texts.size()) {
+                    throw new IOException("Proofread worker returned " + results.size() + " results for "
+                            + texts.size() + " texts");
+                }
+                return results.stream().map(ProofreadWorker::decodeResult).toList();
+            } catch (IOException | RuntimeException exc) {
+                failed = true;
+                connection.close();
+                disconnect(connection.endpoint, exc);
+                return null;
+            }
+        }
+
+        @Override
+        public void close() {
+            connection.close();
+        }
+    }
+
+    private synchronized Endpoint endpoint() {
+        if (endpoint != null || System.nanoTime() - retryAt < 0) {
+            return endpoint;
+        }
+        try {
+            ProofreadWorker.secureDirectory(directory);
+        } catch (IOException exc) {
+            LOGGER.log(Level.WARNING, "Not using a proofread worker in " + directory + ": " + exc.getMessage());
+            retryAt = System.nanoTime() + RETRY_AFTER.toNanos();
+            return null;
+        }
+        endpoint = find();
+        if (endpoint == null) {
+            endpoint = start();
+        }
+        if (endpoint == null) {
+            retryAt = System.nanoTime() + RETRY_AFTER.toNanos();
+        }
+        return endpoint;
+    }
+
+    private synchronized void disconnect(Endpoint failed, Exception cause) {
+        // Only the first of many concurrent failures is reported.
+        if (endpoint == failed) {
+            LOGGER.log(Level.WARNING, "Proofread worker in " + directory + " failed, checking texts in process", cause);
+            endpoint = null;
+            retryAt = System.nanoTime() + RETRY_AFTER.toNanos();
+        }
+    }
+
+    // Reads the published port and token, and checks that the worker answers.
+    private Endpoint find() {
+        try {
+            var file = ProofreadWorker.workerFile(directory);
+            ProofreadWorker.checkOwnerOnly(file, false);
+            var published = Node.parse(Files.readString(file, StandardCharsets.UTF_8)).expectObjectNode();
+            var found = new Endpoint(
+                    published.expectNumberMember("port").getValue().intValue(),
+                    published.expectStringMember("token").getValue());
+            ObjectNode pong;
+            try (var connection = new Connection(found)) {
+                pong = connection.exchange(Node.objectNode().withMember("operation", "ping"));
+            }
+            var version = pong.expectNumberMember("version");
+            return version.getValue().intValue() == ProofreadWorker.PROTOCOL_VERSION ? found : null;
+        } catch (NoSuchFileException exc) {
+            return null;
+        } catch (IOException | RuntimeException exc) {
+            LOGGER.log(Level.FINE, "Proofread worker in " + directory + " did not answer", exc);
+            return null;
+        }
+    }
+
+    private Endpoint start() {
+        Process process;
+        try {
+            var command = List.of(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-Xmx" + maxHeapMb + "m",
+                    "-XX:+ExitOnOutOfMemoryError",
+                    "-cp",
+                    classpath(),
+                    ProofreadWorker.class.getName(),
+                    "--directory",
+                    directory.toString(),
+                    "--idle-minutes",
+                    String.valueOf(Math.max(1, idleTimeout.toMinutes())));
+            process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(directory.resolve("worker.log").toFile()))
+                    .start();
+        } catch (IOException | RuntimeException exc) {
+            LOGGER.log(Level.WARNING, "Unable to start a proofread worker in " + directory, exc);
+            return null;
+        }
+        LOGGER.info(() -> "Started proofread worker " + process.pid() + " in " + directory);
+        var deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        while (System.nanoTime() - deadline < 0) {
+            var found = find();
+            if (found != null) {
+                return found;
+            }
+            if (!process.isAlive()) {
+                LOGGER.warning(() -> "Proofread worker in " + directory + " exited with code " + process.exitValue()
+                        + ", see " + directory.resolve("worker.log"));
+                return null;
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException exc) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        LOGGER.warning(() -> "Proofread worker in " + directory + " did not start within " + START_TIMEOUT
+                + ", see " + directory.resolve("worker.log"));
+        return null;
+    }
+
+    // The plugin may be loaded by a class loader of its own, such as a Gradle plugin's, rather than the system one.
+    private static String classpath() {
+        Set<String> entries = new LinkedHashSet<>();
+        var source = ProofreadWorker.class.getProtectionDomain().getCodeSource();
+        if (source != null && source.getLocation() != null) {
+            try {
+                entries.add(Path.of(source.getLocation().toURI()).toString());
+            } catch (URISyntaxException | IllegalArgumentException exc) {
+                // Not a file, so the worker has to find it on the other entries.
+            }
+        }
+        if (ProofreadWorker.class.getClassLoader() instanceof URLClassLoader loader) {
+            for (var url : loader.getURLs()) {
+                try {
+                    entries.add(Path.of(url.toURI()).toString());
+                } catch (URISyntaxException | IllegalArgumentException exc) {
+                    // Skip entries that are not files.
+                }
+            }
+        }
+        entries.addAll(List.of(System.getProperty("java.class.path").split(File.pathSeparator)));
+        return String.join(File.pathSeparator, entries);
+    }
+
+    // A connection carries any number of requests, each answered before the next is sent.
+    private static final class Connection implements AutoCloseable {
+        private final Endpoint endpoint;
+        private final Socket socket;
+        private final BufferedReader reader;
+        private final BufferedWriter writer;
+
+        Connection(Endpoint endpoint) throws IOException {
+            this.endpoint = endpoint;
+            this.socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), endpoint.port()),
+                        CONNECT_TIMEOUT_MILLIS);
+                socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+                this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+                        StandardCharsets.UTF_8));
+                this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                        StandardCharsets.UTF_8));
+            } catch (IOException exc) {
+                socket.close();
+                throw exc;
+            }
+        }
+
+        ObjectNode exchange(ObjectNode request) throws IOException {
+            writer.write(Node.printJson(request.withMember("token", endpoint.token())));
+            writer.newLine();
+            writer.flush();
+            var line = reader.readLine();
+            if (line == null) {
+                throw new IOException("Proofread worker closed the connection without answering");
+            }
+            var response = Node.parse(line).expectObjectNode();
+            var error = response.getStringMember("error");
+            if (error.isPresent()) {
+                throw new IOException("Proofread worker failed: " + error.get().getValue());
+            }
+            return response;
+        }
+
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            } catch (IOException exc) {
+                LOGGER.log(Level.FINE, "Unable to close connection to proofread worker", exc);
+            }
+        }
+    }
+}
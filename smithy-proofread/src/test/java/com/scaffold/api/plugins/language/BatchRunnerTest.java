@@ -0,0 +1,141 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.node.ObjectNode;
+
+class BatchRunnerTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void discoversPackages() throws IOException {
+        writePackage("first", "Valid docstring.");
+        writePackage("nested/second", "Valid docstring.");
+        writePackage("first/build/output", "Valid docstring.");
+
+        var packages = BatchRunner.discover(dir);
+
+        assertThat(packages.stream().map(BatchRunner.ModelPackage::directory).toList(),
+                contains(dir.resolve("first"), dir.resolve("nested/second")));
+        assertThat(packages.get(0).sources(), contains(dir.resolve("first/model")));
+    }
+
+    @Test
+    void reportsEachPackageAndFailsOnDanger() throws IOException {
+        writePackage("clean", "Valid docstring.");
+        writePackage("typos", "Contains a speling error.");
+        var report = dir.resolve("build/report.jsonl");
+        var options = BatchRunner.Options.parse(dir.toString(), "--parallelism", "2", "--report", report.toString());
+        var runner = new BatchRunner(Node.objectNode().withMember("SpellCheck", Node.objectNode()));
+        var console = new ByteArrayOutputStream();
+
+        var exitCode = runner.run(options, new PrintStream(console, true, StandardCharsets.UTF_8));
+
+        assertThat(exitCode, equalTo(1));
+        List<String> lines = Files.readAllLines(report, StandardCharsets.UTF_8);
+        assertThat(lines, hasSize(3));
+        var summary = Node.parse(lines.get(2)).expectObjectNode().expectObjectMember("summary");
+        assertThat(summary.expectNumberMember("packages").getValue().intValue(), equalTo(2));
+        assertThat(summary.expectNumberMember("danger").getValue().intValue(), equalTo(1));
+        assertThat(summary.expectNumberMember("failed").getValue().intValue(), equalTo(0));
+    }
+
+    @Test
+    void passesWithoutDanger() throws IOException {
+        writePackage("clean", "Valid docstring.");
+        var options = BatchRunner.Options.parse(dir.toString(), "--report", dir.resolve("report.jsonl").toString());
+        var runner = new BatchRunner(Node.objectNode().withMember("SpellCheck", Node.objectNode()));
+
+        var exitCode = runner.run(options, new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+
+        assertThat(exitCode, equalTo(0));
+    }
+
+    @Test
+    void appliesValidatorDefinitionsAndSuppressions() throws IOException {
+        writeModel("configured", """
+                $version: "2"
+                metadata validators = [
+                    {name: "SpellCheck", severity: "WARNING", configuration: {cacheDirectory: "build/cache"}}
+                ]
+                namespace com.example
+
+                /// Contains a speling error.
+                @suppress(["SpellCheck"])
+                structure Suppressed {}
+
+                /// Contains anothr error.
+                structure Reported {}
+                """);
+        var report = dir.resolve("report.jsonl");
+        var options = BatchRunner.Options.parse(dir.resolve("configured").toString(), "--report", report.toString());
+        var runner = new BatchRunner(Node.objectNode());
+
+        var exitCode = runner.run(options, new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+
+        assertThat(exitCode, equalTo(0));
+        var events = Node.parse(Files.readAllLines(report, StandardCharsets.UTF_8).get(0))
+                .expectObjectNode()
+                .expectArrayMember("events")
+                .getElementsAs(ObjectNode.class);
+        assertThat(events, hasSize(1));
+        assertThat(events.get(0).expectStringMember("shapeId").getValue(), equalTo("com.example#Reported"));
+        assertThat(events.get(0).expectStringMember("severity").getValue(), equalTo("WARNING"));
+        assertThat(Files.isDirectory(dir.resolve("configured/build/cache")), equalTo(true));
+    }
+
+    @Test
+    void resolvesRelativePaths() {
+        var base = dir.toAbsolutePath();
+        var configuration = Node.objectNode()
+                .withMember("cacheDirectory", "build/cache")
+                .withMember("metricsFile", base.resolve("metrics.json").toString())
+                .withMember("dictionaries", Node.fromStrings("words.dict"));
+
+        var resolved = BatchRunner.resolvePaths(configuration, base);
+
+        assertThat(resolved.expectStringMember("cacheDirectory").getValue(),
+                equalTo(base.resolve("build/cache").toString()));
+        assertThat(resolved.expectStringMember("metricsFile").getValue(),
+                equalTo(base.resolve("metrics.json").toString()));
+        assertThat(resolved.expectArrayMember("dictionaries").get(0).get().expectStringNode().getValue(),
+                equalTo(base.resolve("words.dict").toString()));
+    }
+
+    private void writePackage(String path, String docstring) throws IOException {
+        writeModel(path, """
+                $version: "2"
+                namespace com.example
+
+                /// %s
+                structure Example {}
+                """.formatted(docstring));
+    }
+
+    private void writeModel(String path, String model) throws IOException {
+        var directory = Files.createDirectories(dir.resolve(path));
+        Files.writeString(directory.resolve("smithy-build.json"), """
+                {"version": "1.0", "sources": ["model"]}
+                """);
+        Files.createDirectories(directory.resolve("model"));
+        Files.writeString(directory.resolve("model/main.smithy"), model);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.validation.Severity;
+import software.amazon.smithy.model.validation.ValidationEvent;
+
+class BudgetTest {
+
+    @Test
+    void textDeadlineIsBoundByModelDeadline() {
+        var clock = new AtomicLong(1_000);
+        var budget = new Budget(Duration.ofNanos(100), Duration.ofNanos(250), clock::get);
+
+        assertThat(budget.textDeadline(), equalTo(1_100L));
+        clock.set(1_200);
+        assertThat(budget.textDeadline(), equalTo(1_250L));
+        assertThat(budget.expired(1_250), equalTo(false));
+        clock.set(1_250);
+        assertThat(budget.expired(1_250), equalTo(true));
+    }
+
+    @Test
+    void notesTextsSkippedByValidator() {
+        var model = Model.assembler()
+                .discoverModels(BudgetTest.class.getClassLoader())
+                .addUnparsedModel("test.smithy", """
+                        $version: "2"
+                        namespace com.spellcheck.test
+
+                        /// Contains a speling error.
+                        structure Widget {}
+                        """)
+                .assemble()
+                .unwrap();
+        // A model budget that started an hour ago has already run out when the first text is checked.
+        var hourAgo = Duration.ofHours(1).toNanos();
+        var budget = new Budget(Duration.ZERO, Duration.ofMillis(1), () -> System.nanoTime() - hourAgo);
+
+        var events = SpellCheckValidator.create(Node.objectNode()).validate(model, budget);
+
+        assertThat(events.stream().map(ValidationEvent::getId).toList(), contains("SpellCheck.Budget"));
+        assertThat(events.get(0).getSeverity(), equalTo(Severity.NOTE));
+        assertThat(events.get(0).getMessage(), startsWith("Skipped "));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.StringTokenizer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.languagetool.tokenizers.WordTokenizer;
+
+class CodeTokenizerTest {
+    private static final String[] FRAGMENTS = {
+            "HTTP",
+            "Server",
+            "ID",
+            "Id",
+            "member",
+            "abot",
+            "get",
+            "URL",
+            "Arn",
+            "EC2",
+            "s3",
+            "a",
+            "B",
+            "xY",
+            "ABc",
+            "_",
+            "-",
+            "–",
+            ".",
+            " ",
+            "@",
+            "/",
+            "https://example.com/path",
+            "user@example.com",
+            "é",
+            "Äpfel",
+            "ÖSTERREICH",
+            "日本",
+            "😀",
+            "123",
+            "\n"
+    };
+
+    public static Stream<String> identifiers() {
+        return Stream.of(
+                "",
+                "a",
+                "A",
+                "HTTPServerID",
+                "member_abot",
+                "ThingSpelingStuff",
+                "com.spellcheck.tst",
+                "kebab-case-name",
+                "SCREAMING_SNAKE_CASE",
+                "getHTTPResponseCode",
+                "IOError",
+                "aBCdEF",
+                "ABCd",
+                "Contains a speling error!",
+                "see https://example.com/FooBar for details",
+                "mail user@example.com now",
+                "ÄpfelBirnen",
+                "XMLHttpRequest2Go");
+    }
+
+    @ParameterizedTest
+    @MethodSource("identifiers")
+    void matchesRegexTokenizer(String identifier) {
+        assertThat(new CodeTokenizer().tokenize(identifier), equalTo(new RegexTokenizer().tokenize(identifier)));
+    }
+
+    @Test
+    void matchesRegexTokenizerOnGeneratedCorpus() {
+        var random = new Random(42);
+        var tokenizer = new CodeTokenizer();
+        var reference = new RegexTokenizer();
+        for (int i = 0; i < 50_000; i++) {
+            var builder = new StringBuilder();
+            var fragments = 1 + random.nextInt(6);
+            for (int j = 0; j < fragments; j++) {
+                builder.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            var identifier = builder.toString();
+            assertThat(identifier, tokenizer.tokenize(identifier), equalTo(reference.tokenize(identifier)));
+        }
+    }
+
+    @Test
+    void splitsAcronymBoundaries() {
+        assertThat(new CodeTokenizer().tokenize("HTTPServerID"), contains("HTTP", "Server", "ID"));
+    }
+
+    /**
+     * Original regex-based implementation, kept as the reference for the scanning tokenizer.
+     */
+    private static final class RegexTokenizer extends WordTokenizer {
+        @Override
+        public String getTokenizingCharacters() {
+            return super.getTokenizingCharacters() + "–_@";
+        }
+
+        @Override
+        public List<String> tokenize(String text) {
+            List<String> list = new ArrayList<>();
+            var tokenizer = new StringTokenizer(text, this.getTokenizingCharacters(), true);
+            while (tokenizer.hasMoreElements()) {
+                Collections.addAll(list,
+                        tokenizer.nextToken().split("(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])"));
+            }
+            return this.joinEMailsAndUrls(list);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.languagetool.rules.Rule;
+
+class CodingEnglishTest {
+    private static final String TEXT = "Gets the `Widget` with the givn ID. Teh widget must exist in the AwsAcount.";
+
+    @Test
+    void spellingOnlyCreatesOnlyTheSpeller() {
+        var tool = spec().create(CodingEnglish.spellingOnly());
+
+        assertThat(tool.getAllRules(), hasSize(1));
+        assertThat(tool.getAllRules(), contains(instanceOf(CodingSpellerRule.class)));
+    }
+
+    @Test
+    void spellingOnlyFindsSameTypos() {
+        var lean = spec().create(CodingEnglish.spellingOnly());
+        var full = spec().create(new CodingEnglish());
+
+        assertThat(LanguageCheckingUtils.getTextMatches(lean, TEXT, Suggestions.NONE),
+                equalTo(LanguageCheckingUtils.getTextMatches(full, TEXT, Suggestions.NONE)));
+        assertThat(full.getAllActiveRules().stream().map(Rule::getId).toList(),
+                equalTo(lean.getAllActiveRules().stream().map(Rule::getId).toList()));
+    }
+
+    @Test
+    void poolBuildsSpellingToolsOverSpellingOnlyLanguage() {
+        try (var lease = LanguageToolPool.shared().acquire(spec())) {
+            assertThat(lease.tool().getAllRules(), hasSize(1));
+        }
+    }
+
+    private static ToolSpec spec() {
+        return ToolSpec.spelling("en", List.of("Widget"), IgnorePatterns.compile(List.of("Aws*")));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class CompiledDictionaryTest {
+    @TempDir
+    static Path dir;
+    private static CompiledDictionary words;
+
+    @BeforeAll
+    static void compile() throws IOException {
+        var input = Files.writeString(dir.resolve("words.txt"), """
+                # Inflected forms follow the word on the same line.
+                deploy deploys deployed
+
+                DynamoDB
+                Kinesis
+                café
+                """);
+        var output = dir.resolve("words.dict");
+        DictionaryCompiler.compile(List.of(input), output);
+        words = CompiledDictionary.open(output);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "deploy, true",
+            "deploys, true",
+            "Deploy, true",
+            "deploying, false",
+            "DynamoDB, true",
+            "dynamodb, false",
+            "Kinesis, true",
+            "Kine, false",
+            "café, true",
+            "caf, false",
+            "zzz, false"
+    })
+    void containsCompiledWords(String word, boolean expected) {
+        assertThat(words.contains(word), equalTo(expected));
+    }
+
+    @Test
+    void findsEveryWordAcrossBlocks() throws IOException {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            words.add("term" + i);
+        }
+        var file = dir.resolve("many.dict");
+        var count = CompiledDictionary.write(words, file);
+        var dictionary = CompiledDictionary.open(file);
+
+        assertThat(count, equalTo(1000));
+        assertThat(dictionary.size(), equalTo(1000));
+        for (var word : words) {
+            assertThat(word, dictionary.contains(word), equalTo(true));
+        }
+        assertThat(dictionary.contains("term1000"), equalTo(false));
+        assertThat(dictionary.contains("ter"), equalTo(false));
+        assertThat(CompiledDictionary.open(file), sameInstance(dictionary));
+    }
+
+    @Test
+    void mapsRecompiledFilesAgain() throws IOException {
+        var file = dir.resolve("changing.dict");
+        CompiledDictionary.write(List.of("alpha"), file);
+        var first = CompiledDictionary.open(file);
+        // Replaced the way the compiler replaces its output.
+        var temp = dir.resolve("changing.tmp");
+        CompiledDictionary.write(List.of("alpha", "beta"), temp);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+
+        var second = CompiledDictionary.open(file);
+
+        assertThat(second, not(sameInstance(first)));
+        assertThat(second.contains("beta"), equalTo(true));
+        assertThat(second.checksum(), not(equalTo(first.checksum())));
+        assertThat(CompiledDictionary.open(file), sameInstance(second));
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        var file = Files.writeString(dir.resolve("other.dict"), "not a dictionary");
+
+        assertThrows(IllegalArgumentException.class, () -> CompiledDictionary.open(file));
+    }
+}
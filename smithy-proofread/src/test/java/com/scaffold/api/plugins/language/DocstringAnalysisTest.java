@@ -0,0 +1,80 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.validation.ValidationEvent;
+
+class DocstringAnalysisTest {
+    private static final String MODEL = """
+            $version: "2"
+            namespace com.spellcheck.test
+
+            /// Contains a speling error.
+            structure Widgt {}
+            """;
+
+    private static final String FUSED = """
+            $version: "2"
+            metadata validators = [{name: "SpellCheck"}, {name: "Proofread"}]
+            namespace com.spellcheck.test
+
+            /// Contains a speling error.
+            structure Widgt {}
+            """;
+
+    @Test
+    void fusedChecksKeepTextOrder() {
+        var validator = SpellCheckValidator.create(Node.objectNode());
+
+        var fused = describe(validator.validate(model(FUSED)));
+        var alone = describe(validator.validate(model(MODEL)));
+
+        assertThat(fused, hasSize(2));
+        assertThat(fused, equalTo(alone));
+    }
+
+    @Test
+    void sharesAnalysisOfModel() {
+        var model = model(FUSED);
+
+        assertThat(DocstringAnalysis.of(model), sameInstance(DocstringAnalysis.of(model)));
+    }
+
+    @Test
+    void analysisOfModelOnlyReadsConfiguration() {
+        // Ignore files are only read once docstrings are analyzed, so a missing one does not fail here.
+        var model = Model.assembler()
+                .disableValidation()
+                .addUnparsedModel("test.smithy", FUSED.replace("{name: \"SpellCheck\"}",
+                        "{name: \"SpellCheck\", configuration: {ignoreFiles: [\"missing.txt\"]}}"))
+                .assemble()
+                .unwrap();
+
+        assertThat(DocstringAnalysis.of(model), notNullValue());
+    }
+
+    private static List<String> describe(List<ValidationEvent> events) {
+        return events.stream().map(event -> event.getId() + ": " + event.getMessage()).toList();
+    }
+
+    private static Model model(String text) {
+        return Model.assembler()
+                .discoverModels(DocstringAnalysisTest.class.getClassLoader())
+                .addUnparsedModel("test.smithy", text)
+                .assemble()
+                .getResult()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class IgnorePatternsTest {
+    private static final IgnorePatterns PATTERNS = IgnorePatterns.compile(List.of(
+            "Aws*",
+            "*Arn",
+            "Ec2*Id",
+            "*vend*",
+            "kms*"));
+
+    @ParameterizedTest
+    @CsvSource({
+            "Aws, true",
+            "AwsRegion, true",
+            "Aw, false",
+            "RoleArn, true",
+            "Arn, true",
+            "Ar, false",
+            "Ec2InstanceId, true",
+            "Ec2Id, true",
+            "Ec2Instance, false",
+            "Subvendor, true",
+            "KmsKey, true",
+            "kmskey, true",
+            "Kmx, false"
+    })
+    void matchesPatterns(String word, boolean expected) {
+        assertThat(PATTERNS.matches(word), equalTo(expected));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"Vendor0Name, true", "Vendor19999Name, true", "Vendor20000Name, false", "Product42Arn, true"})
+    void scalesToLargePatternLists(String word, boolean expected) {
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            patterns.add("Vendor" + i + "Name*");
+            patterns.add("*Product" + i + "Arn");
+        }
+        assertThat(IgnorePatterns.compile(patterns).matches(word), equalTo(expected));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.shapes.ShapeId;
+import software.amazon.smithy.model.validation.Severity;
+import software.amazon.smithy.model.validation.ValidationEvent;
+
+class IncrementalValidationTest {
+    private static final String PREVIOUS = """
+            $version: "2"
+            namespace com.spellcheck.test
+
+            /// Contains a speling error.
+            structure First {}
+
+            /// No errors here.
+            structure Second {}
+
+            /// Anothr error.
+            structure Third {}
+            """;
+
+    private static final String CURRENT = """
+            $version: "2"
+            namespace com.spellcheck.test
+
+            /// Fixed the spelling error,
+            /// and moved the shapes below.
+            structure First {}
+
+            /// Now has an eror.
+            structure Second {}
+
+            /// Anothr error.
+            structure Third {}
+
+            /// Is neww.
+            structure Fourth {}
+            """;
+
+    @Test
+    void matchesFullValidation() {
+        var previous = model(PREVIOUS);
+        var current = model(CURRENT);
+        var validator = SpellCheckValidator.create(Node.objectNode());
+        var previousEvents = validator.validate(previous);
+
+        var events = validator.validate(previous, previousEvents, current);
+
+        assertThat(events, hasSize(3));
+        assertThat(events, containsInAnyOrder(validator.validate(current).toArray(ValidationEvent[]::new)));
+    }
+
+    @Test
+    void revalidatesEverythingWhenConfigurationChanges() {
+        var previous = model(PREVIOUS);
+        var current = model(PREVIOUS.replace("namespace", """
+                metadata validators = [{name: "SpellCheck", configuration: {ignore: ["Anothr"]}}]
+                namespace"""));
+        var validator = SpellCheckValidator.create(Node.objectNode().withMember("ignore", Node.fromStrings("Anothr")));
+        var previousEvents = SpellCheckValidator.create(Node.objectNode()).validate(previous);
+
+        var events = validator.validate(previous, previousEvents, current);
+
+        assertThat(events, hasSize(1));
+    }
+
+    @Test
+    void rechecksTextsCutShortByBudget() {
+        var previous = model(PREVIOUS);
+        var validator = SpellCheckValidator.create(Node.objectNode());
+        var first = previous.expectShape(ShapeId.from("com.spellcheck.test#First"));
+        var note = ValidationEvent.builder()
+                .id("SpellCheck.Budget")
+                .severity(Severity.NOTE)
+                .shapeId(first.getId())
+                .sourceLocation(first.getSourceLocation())
+                .message("Only checked the first 0 of 27 characters of this `documentation` trait value")
+                .build();
+
+        var events = validator.validate(previous, List.of(note), previous);
+
+        assertThat(events, hasSize(1));
+        assertThat(events.get(0).getShapeId(), equalTo(Optional.of(first.getId())));
+        assertThat(events.get(0).getId(), not(equalTo("SpellCheck.Budget")));
+    }
+
+    private static Model model(String text) {
+        return Model.assembler()
+                .discoverModels(IncrementalValidationTest.class.getClassLoader())
+                .addUnparsedModel("test.smithy", text)
+                .assemble()
+                .getResult()
+                .orElseThrow();
+    }
+}
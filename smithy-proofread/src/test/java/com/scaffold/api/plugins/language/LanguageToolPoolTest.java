@@ -0,0 +1,108 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LanguageToolPoolTest {
+    @Test
+    void reusesReleasedTools() {
+        try (var pool = new LanguageToolPool(Duration.ofMinutes(1))) {
+            var spec = ToolSpec.spelling("en", List.of("b", "a", "b"));
+
+            Object first;
+            try (var lease = pool.acquire(spec)) {
+                first = lease.tool();
+            }
+            try (var lease = pool.acquire(ToolSpec.spelling("en", List.of("a", "b")))) {
+                assertThat(lease.tool(), sameInstance(first));
+            }
+        }
+    }
+
+    @Test
+    void concurrentLeasesGetDistinctTools() {
+        try (var pool = new LanguageToolPool(Duration.ofMinutes(1))) {
+            var spec = ToolSpec.grammar("en");
+
+            try (var a = pool.acquire(spec); var b = pool.acquire(spec)) {
+                assertThat(a.tool(), not(sameInstance(b.tool())));
+            }
+            assertThat(pool.idleCount(), equalTo(2));
+        }
+    }
+
+    @Test
+    void evictsIdleTools() {
+        try (var pool = new LanguageToolPool(Duration.ofMillis(1))) {
+            try (var lease = pool.acquire(ToolSpec.grammar("en"))) {
+                lease.tool();
+            }
+            await(Duration.ofMillis(10));
+            pool.evictIdle();
+
+            assertThat(pool.idleCount(), equalTo(0));
+        }
+    }
+
+    @Test
+    void dropsReleasedToolsWithoutIdleTimeout() {
+        try (var pool = new LanguageToolPool(Duration.ZERO)) {
+            try (var lease = pool.acquire(ToolSpec.grammar("en"))) {
+                lease.tool();
+            }
+
+            assertThat(pool.idleCount(), equalTo(0));
+        }
+    }
+
+    @Test
+    void closeDropsIdleTools() {
+        var pool = new LanguageToolPool(Duration.ofMinutes(1));
+        var spec = ToolSpec.grammar("en");
+        var lease = pool.acquire(spec);
+        try (var idle = pool.acquire(spec)) {
+            idle.tool();
+        }
+
+        pool.close();
+        assertThat(pool.idleCount(), equalTo(0));
+        // Tools leased before closing can still be used, but are not pooled again.
+        lease.tool();
+        lease.close();
+        assertThat(pool.idleCount(), equalTo(0));
+    }
+
+    @Test
+    void acquireReusesWarmedUpTool() {
+        try (var pool = new LanguageToolPool(Duration.ofMinutes(1))) {
+            var spec = ToolSpec.grammar("en");
+
+            pool.warmUp(spec);
+            try (var lease = pool.acquire(spec)) {
+                lease.tool();
+                assertThat(pool.idleCount(), equalTo(0));
+            }
+
+            assertThat(pool.idleCount(), equalTo(1));
+        }
+    }
+
+    private static void await(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(exc);
+        }
+    }
+}
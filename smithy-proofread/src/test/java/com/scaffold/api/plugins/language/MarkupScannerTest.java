@@ -0,0 +1,84 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class MarkupScannerTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', textBlock = """
+            a supported tag <h1>speling error</h1>.      | T(a supported tag )M(<h1>)T(speling error)M(</h1>)T(.)
+            an unsupported tag <pre>abot that</pre>.     | T(an unsupported tag )M(<pre>abot that</pre>=Code)T(.)
+            x <p>a <code>b</code> c</p>                  | T(x )M(<p>)T(a )M(<code>b</code>=Code)T( c)M(</p>)
+            <PRE>x</pre> y                               | M(<PRE>x</pre>=Code)T( y)
+            unbalanced <pre>x and <b>y                   | T(unbalanced )M(<pre>)T(x and )M(<b>)T(y)
+            </x2> <x1>a <x2>b</X2 > c</x1>               | M(</x2>)T( )M(<x1>a <x2>b</X2 > c</x1>=Code)
+            a <x2>b</X2 > c </x2>                        | T(a )M(<x2>b</X2 >=Code)T( c )M(</x2>)
+            a < b and c > d                              | T(a < b and c > d)
+            <br/> <img src="x"> end                      | M(<br/>)T( )M(<img src="x">)T( end)
+            use `foo` and ``a`b``                        | T(use )M(`foo`=Code)T( and )M(``a`b``=Code)
+            an `unclosed span                            | T(an `unclosed span)
+            see [the docs](https://x.y/z).               | T(see )M([)T(the docs)M(](https://x.y/z))T(.)
+            not [a link] or [a](b c)                     | T(not [a link] or [a](b c))
+            <https://example.com> ok                     | M(<https://example.com>=https://example.com)T( ok)
+            """)
+    void separatesMarkupFromText(String text, String expected) {
+        assertThat(scan(text), equalTo(expected));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', textBlock = """
+            text\\n```java\\ncode\\n```\\nafter          | T(text\\n)M(```java\\ncode\\n```)T(\\nafter)
+            text\\n  ~~~\\ncode\\n~~~~\\nafter          | T(text\\n  )M(~~~\\ncode\\n~~~~)T(\\nafter)
+            text\\n````\\n```\\nnever closed            | T(text\\n)M(````\\n```\\nnever closed)
+            not ```a fence```                         | T(not )M(```a fence```=Code)
+            """)
+    void skipsFencedCodeBlocks(String text, String expected) {
+        assertThat(scan(text.replace("\\n", "\n")).replace("\n", "\\n"), equalTo(expected));
+    }
+
+    @Test
+    void indexesClosingTagsOfManyUnclosedElements() {
+        // Each element lacks its own closing tag, while closing tags of another name follow every one of them.
+        var text = new StringBuilder();
+        var expected = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            text.append("<x").append(i).append("> w </y> ");
+            expected.append("M(<x").append(i).append(">)T( w )M(</y>)T( )");
+        }
+
+        var scanned = assertTimeout(Duration.ofSeconds(10), () -> scan(text.toString()));
+
+        assertThat(scanned, equalTo(expected.toString()));
+    }
+
+    private static String scan(String text) {
+        var result = new StringBuilder();
+        MarkupScanner.scan(text, new MarkupScanner.Sink() {
+            @Override
+            public void text(int start, int end) {
+                result.append("T(").append(text, start, end).append(')');
+            }
+
+            @Override
+            public void markup(int start, int end, String interpretAs) {
+                result.append("M(").append(text, start, end);
+                if (interpretAs != null) {
+                    result.append('=').append(interpretAs);
+                }
+                result.append(')');
+            }
+        });
+        return result.toString();
+    }
+}
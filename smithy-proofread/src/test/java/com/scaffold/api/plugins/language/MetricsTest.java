@@ -0,0 +1,94 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.hasSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.knowledge.TextIndex;
+import software.amazon.smithy.model.knowledge.TextInstance;
+import software.amazon.smithy.model.node.Node;
+
+class MetricsTest {
+
+    @Test
+    void writesSummaryFile(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("metrics/spellcheck.json");
+        var model = """
+                $version: "2"
+                metadata validators = [
+                    {
+                        name: "SpellCheck",
+                        configuration: {
+                            metricsFile: "%s",
+                            metricsSlowestTexts: 2
+                        }
+                    }
+                ]
+                namespace com.spellcheck.test
+
+                /// Contains a speling error!
+                structure MyStructure {
+                    /// Member docs
+                    member: String
+                }
+                """.formatted(file.toString().replace('\\', '/'));
+        Model.assembler()
+                .discoverModels(getClass().getClassLoader())
+                .addUnparsedModel("metrics.smithy", model)
+                .assemble();
+
+        var summary = Node.parse(Files.readString(file)).expectObjectNode();
+
+        assertThat(summary.expectStringMember("validator").getValue(), equalTo("SpellCheck"));
+        assertThat(summary.expectNumberMember("texts").getValue().intValue(), greaterThan(0));
+        assertThat(summary.expectNumberMember("matches").getValue().intValue(), greaterThan(0));
+        var check = summary.expectObjectMember("phases").expectObjectMember("check");
+        assertThat(check.expectNumberMember("count").getValue().intValue(), greaterThan(0));
+        assertThat(summary.expectObjectMember("ruleMatches").getStringMap(), hasKey("MORFOLOGIK_RULE_EN_US"));
+        assertThat(summary.expectArrayMember("slowestTexts").getElements(), hasSize(2));
+    }
+
+    @Test
+    void recordsEachTextOfBatch(@TempDir Path dir) throws IOException {
+        var model = Model.assembler()
+                .addUnparsedModel("metrics.smithy", """
+                        $version: "2"
+                        namespace com.spellcheck.test
+
+                        /// First text
+                        structure First {}
+
+                        /// Second text
+                        structure Second {}
+                        """)
+                .assemble()
+                .unwrap();
+        List<TextInstance> texts = new ArrayList<>(TextIndex.of(model).getTextInstances());
+        var metrics = new Metrics("SpellCheck", true, texts.size());
+        var file = dir.resolve("metrics.json");
+
+        var checked = metrics.timeBatch(texts,
+                () -> texts.stream().map(text -> Map.entry(text, List.of(text.getText()))).toList());
+        metrics.report(file);
+
+        var summary = Node.parse(Files.readString(file)).expectObjectNode();
+        assertThat(checked, hasSize(texts.size()));
+        assertThat(summary.expectNumberMember("texts").getValue().intValue(), equalTo(texts.size()));
+        assertThat(summary.expectArrayMember("slowestTexts").getElements(), hasSize(texts.size()));
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.node.Node;
+
+class ProofreadWorkerTest {
+    private static final String TEXT = "Contains a speling error.";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void checksTextsSentByClient() throws Exception {
+        var spec = ToolSpec.spelling("en", List.of("Flux"), IgnorePatterns.compile(List.of("Aws*")));
+        var suggestions = new Suggestions(4, 0, Duration.ZERO);
+        try (var worker = new ProofreadWorker(dir, Duration.ofMinutes(1))) {
+            var thread = start(worker);
+            var client = WorkerClient.shared(dir.toString(), Duration.ofMinutes(1), WorkerClient.DEFAULT_MAX_HEAP_MB);
+
+            List<TextChunks.Result<TextMatch>> results;
+            try (var session = client.open(spec, suggestions, 0, 0, 2)) {
+                var budget = new Budget(Duration.ZERO, Duration.ZERO);
+                session.check(List.of(new WorkerClient.Text("Flux", true)), budget);
+                // Later batches of the session reuse the spec registered when it was opened.
+                results = session.check(List.of(
+                        new WorkerClient.Text(TEXT, false),
+                        new WorkerClient.Text("AwsWidgt", true)), budget);
+            }
+
+            List<TextChunks.Result<TextMatch>> expected = new ArrayList<>();
+            try (var lease = LanguageToolPool.shared().acquire(spec)) {
+                for (var text : List.of(TEXT, "AwsWidgt")) {
+                    expected.add(TextChunks.Result.complete(
+                            LanguageCheckingUtils.getTextMatches(lease.tool(), text, suggestions), text.length()));
+                }
+            }
+            assertThat(results, equalTo(expected));
+            assertThat(results.get(0).matches(), hasSize(1));
+            worker.close();
+            thread.join(Duration.ofSeconds(10).toMillis());
+        }
+    }
+
+    @Test
+    void checksSentencesWhenAsked() throws Exception {
+        var spec = ToolSpec.spelling("en", List.of());
+        try (var worker = new ProofreadWorker(dir, Duration.ofMinutes(1))) {
+            var thread = start(worker);
+            var client = WorkerClient.shared(dir.toString(), Duration.ofMinutes(1), WorkerClient.DEFAULT_MAX_HEAP_MB);
+            var hits = SentenceCache.shared(0).stats().hits();
+
+            List<TextChunks.Result<TextMatch>> results;
+            try (var session = client.open(spec, Suggestions.NONE, 0, 100, 1)) {
+                var budget = new Budget(Duration.ZERO, Duration.ZERO);
+                session.check(List.of(new WorkerClient.Text(TEXT, false)), budget);
+                results = session.check(List.of(new WorkerClient.Text(TEXT + " " + TEXT, false)), budget);
+            }
+
+            // The worker runs in this process, so its sentence cache is the one of the test.
+            assertThat(SentenceCache.shared(0).stats().hits(), greaterThanOrEqualTo(hits + 2));
+            assertThat(results.get(0).matches(), hasSize(2));
+            worker.close();
+            thread.join(Duration.ofSeconds(10).toMillis());
+        }
+    }
+
+    @Test
+    void stopsWhenIdle() throws Exception {
+        try (var worker = new ProofreadWorker(dir, Duration.ZERO)) {
+            var thread = start(worker);
+            thread.join(Duration.ofSeconds(10).toMillis());
+
+            assertThat(thread.isAlive(), equalTo(false));
+            assertThat(Files.exists(ProofreadWorker.workerFile(dir)), equalTo(false));
+        }
+    }
+
+    @Test
+    void checksInProcessWhenWorkerIsStale() throws Exception {
+        // A worker file left behind by a worker that is gone, and a worker that cannot start with so little heap.
+        var file = ProofreadWorker.workerFile(dir);
+        Files.writeString(file, "{\"port\": " + closedPort() + ", \"token\": \"stale\"}");
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.setPosixFilePermissions(dir, PosixFilePermissions.fromString("rwx------"));
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        }
+        var client = WorkerClient.shared(dir.toString(), Duration.ofMinutes(1), 1);
+        var config = Node.objectNode()
+                .withMember("worker", true)
+                .withMember("workerDirectory", dir.toString())
+                .withMember("workerMaxHeapMb", 1);
+        var model = Model.assembler()
+                .discoverModels(ProofreadWorkerTest.class.getClassLoader())
+                .addUnparsedModel("test.smithy", """
+                        $version: "2"
+                        namespace com.spellcheck.test
+
+                        @documentation("Contains a speling error.")
+                        structure Widgt {}
+                        """)
+                .assemble()
+                .unwrap();
+
+        assertThat(client.open(ToolSpec.spelling("en", List.of()), Suggestions.NONE, 0, 0, 1), nullValue());
+        var events = SpellCheckValidator.create(config).validate(model);
+        assertThat(events, hasSize(2));
+        assertThat(events, equalTo(SpellCheckValidator.create(Node.objectNode()).validate(model)));
+    }
+
+    @Test
+    void refusesDirectoryOthersCanWrite() throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Files.setPosixFilePermissions(dir, PosixFilePermissions.fromString("rwxrwxrwx"));
+
+        assertThrows(IOException.class, () -> ProofreadWorker.secureDirectory(dir));
+        try (var worker = new ProofreadWorker(dir, Duration.ofMinutes(1))) {
+            assertThrows(IOException.class, worker::run);
+        }
+    }
+
+    @Test
+    void createsOwnerOnlyDirectory() throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        var created = dir.resolve("workers");
+
+        ProofreadWorker.secureDirectory(created);
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(created)), equalTo("rwx------"));
+    }
+
+    @Test
+    void specSurvivesEncoding() {
+        var spec = ToolSpec.all("en",
+                List.of("Flux"),
+                IgnorePatterns.compile(List.of("Aws*", "*Arn")),
+                List.of(new ToolSpec.DictionaryFile(Path.of("words.dict").toAbsolutePath(), 42)),
+                new RuleSelection(RuleSelection.Profile.FAST, List.of("A"), List.of("B"), List.of("C"), List.of()));
+
+        assertThat(ProofreadWorker.decodeSpec(ProofreadWorker.encodeSpec(spec)), equalTo(spec));
+    }
+
+    private static int closedPort() throws IOException {
+        try (var socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // Runs the worker on a background thread, and waits until it has published its port.
+    private Thread start(ProofreadWorker worker) throws InterruptedException {
+        var thread = new Thread(() -> {
+            try {
+                worker.run();
+            } catch (IOException exc) {
+                throw new UncheckedIOException(exc);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        for (int i = 0; i < 100 && !Files.exists(ProofreadWorker.workerFile(dir)) && thread.isAlive(); i++) {
+            Thread.sleep(50);
+        }
+        return thread;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.knowledge.TextIndex;
+
+class ResultCacheTest {
+    private static final TextMatch MATCH = new TextMatch(3, 8, "Possible typo", List.of("Spelling", "Spewing"));
+
+    @Test
+    void persistsEntriesAcrossLoads(@TempDir Path dir) {
+        var key = ResultCache.key("SpellCheck", "SHAPE", "ThingSpelingStuff");
+        var cache = ResultCache.load(dir, ResultCache.DEFAULT_MAX_BYTES);
+        cache.computeIfAbsent(key, () -> List.of(MATCH));
+        cache.flush();
+
+        var reloaded = ResultCache.load(dir, ResultCache.DEFAULT_MAX_BYTES);
+        var matches = reloaded.computeIfAbsent(key, () -> {
+            throw new AssertionError("Expected cached matches");
+        });
+
+        assertThat(matches, contains(MATCH));
+    }
+
+    @Test
+    void keysDependOnConfiguration() {
+        var a = ResultCache.key("SpellCheck;limit=4", "SHAPE", "Foo");
+        var b = ResultCache.key("SpellCheck;limit=2", "SHAPE", "Foo");
+
+        assertThat(a.equals(b), equalTo(false));
+    }
+
+    @Test
+    void discardsFilesFromOtherGenerations(@TempDir Path dir) throws IOException {
+        Files.write(dir.resolve("proofread.cache"), new byte[] {0x46, 0x4C, 0x58, 0x43, 0, 0, 0, 9});
+        var cache = ResultCache.load(dir, ResultCache.DEFAULT_MAX_BYTES);
+        var key = ResultCache.key("Proofread", "APPLIED_TRAIT", "Text");
+
+        assertThat(cache.computeIfAbsent(key, List::of), empty());
+    }
+
+    @Test
+    void compactsToUsedEntries(@TempDir Path dir) throws IOException {
+        var cache = ResultCache.load(dir, 256);
+        for (int i = 0; i < 20; i++) {
+            cache.computeIfAbsent(ResultCache.key("SpellCheck", "SHAPE", "Text" + i), () -> List.of(MATCH));
+        }
+        cache.flush();
+
+        assertThat(Files.size(dir.resolve("proofread.cache")) <= 256, equalTo(true));
+    }
+
+    @Test
+    void scopesOnlyCacheFullyCheckedTexts(@TempDir Path dir) {
+        var model = Model.assembler()
+                .addUnparsedModel("test.smithy", """
+                        $version: "2"
+                        namespace com.spellcheck.test
+
+                        structure Widgt {}
+                        """)
+                .assemble()
+                .unwrap();
+        var text = TextIndex.of(model).getTextInstances().stream()
+                .filter(t -> t.getText().equals("Widgt"))
+                .findFirst()
+                .orElseThrow();
+        var cache = ResultCache.load(dir, ResultCache.DEFAULT_MAX_BYTES);
+        var scope = ResultCache.scope(cache, "SpellCheck");
+        var other = ResultCache.scope(cache, "Proofread");
+
+        scope.put(text, new TextChunks.Result<>(List.of(MATCH), 2, 5));
+        assertThat(scope.get(text), nullValue());
+        scope.put(text, TextChunks.Result.complete(List.of(MATCH), 5));
+
+        assertThat(scope.get(text), equalTo(TextChunks.Result.complete(List.of(MATCH), 5)));
+        assertThat(other.get(text), nullValue());
+        assertThat(ResultCache.scope(null, "SpellCheck").get(text), nullValue());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesFromMemory(@TempDir Path dir) {
+        var cache = ResultCache.load(dir, 256);
+        var first = ResultCache.key("SpellCheck", "SHAPE", "Text0");
+        cache.put(first, List.of(MATCH));
+        for (int i = 1; i < 20; i++) {
+            cache.put(ResultCache.key("SpellCheck", "SHAPE", "Text" + i), List.of(MATCH));
+        }
+
+        assertThat(cache.get(first), nullValue());
+        assertThat(cache.get(ResultCache.key("SpellCheck", "SHAPE", "Text19")), equalTo(List.of(MATCH)));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.in;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.languagetool.JLanguageTool;
+import org.languagetool.rules.Rule;
+import org.languagetool.rules.spelling.SpellingCheckRule;
+
+class RuleSelectionTest {
+    private static final Set<String> FAST_CATEGORIES = Set.of(
+            "CASING",
+            "CONFUSED_WORDS",
+            "GRAMMAR",
+            "MISC",
+            "PUNCTUATION",
+            "TYPOS");
+
+    @Test
+    void fastProfileOnlyLoadsMistakeCategories() {
+        var fast = activeRuleIds(profile(RuleSelection.Profile.FAST));
+        var defaults = activeRuleIds(RuleSelection.DEFAULT);
+
+        assertThat(fast.size(), lessThan(defaults.size()));
+        assertThat(activeCategories(profile(RuleSelection.Profile.FAST)), everyItem(in(FAST_CATEGORIES)));
+    }
+
+    @Test
+    void strictProfileEnablesRulesThatAreOffByDefault() {
+        assertThat(activeRuleIds(profile(RuleSelection.Profile.STRICT)).size(),
+                greaterThan(activeRuleIds(RuleSelection.DEFAULT).size()));
+    }
+
+    @Test
+    void disablesRulesAndCategories() {
+        var defaults = activeRuleIds(RuleSelection.DEFAULT);
+        var disabledRule = defaults.get(0);
+        var selection = new RuleSelection(RuleSelection.Profile.DEFAULT,
+                List.of(),
+                List.of(disabledRule),
+                List.of(),
+                List.of("GRAMMAR"));
+
+        assertThat(activeRuleIds(selection), not(hasItem(disabledRule)));
+        assertThat(activeCategories(selection), not(hasItem("GRAMMAR")));
+    }
+
+    @Test
+    void enabledCategoriesExtendProfiles() {
+        var selection = new RuleSelection(RuleSelection.Profile.FAST,
+                List.of(),
+                List.of(),
+                List.of("STYLE"),
+                List.of());
+
+        assertThat(activeCategories(selection), hasItem("STYLE"));
+    }
+
+    @Test
+    void parsesProfileNames() {
+        assertThat(RuleSelection.Profile.of("Fast"), equalTo(RuleSelection.Profile.FAST));
+        assertThrows(IllegalArgumentException.class, () -> RuleSelection.Profile.of("quick"));
+    }
+
+    private static RuleSelection profile(RuleSelection.Profile profile) {
+        return new RuleSelection(profile, List.of(), List.of(), List.of(), List.of());
+    }
+
+    private static List<Rule> activeRules(RuleSelection rules) {
+        var spec = ToolSpec.grammar("en", rules);
+        JLanguageTool tool = spec.create(new CodingEnglish(rules));
+        return tool.getAllActiveRules().stream().filter(rule -> !(rule instanceof SpellingCheckRule)).toList();
+    }
+
+    private static List<String> activeRuleIds(RuleSelection rules) {
+        return activeRules(rules).stream().map(Rule::getId).sorted().toList();
+    }
+
+    private static List<String> activeCategories(RuleSelection rules) {
+        return activeRules(rules).stream().map(rule -> rule.getCategory().getId().toString()).distinct().toList();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.model.knowledge.TextIndex;
+import software.amazon.smithy.model.knowledge.TextInstance;
+import software.amazon.smithy.model.node.Node;
+import software.amazon.smithy.model.validation.ValidationEvent;
+
+class SentenceCacheTest {
+
+    @Test
+    void checksRepeatedSentencesOnce() {
+        var cache = new SentenceCache(10);
+        var scope = SentenceCache.scope(cache, "test");
+        List<String> checked = new ArrayList<>();
+
+        var first = scope.check("The ID. The name.", Metrics.NONE, sentence -> {
+            checked.add(sentence);
+            return List.of(new TextMatch(4, 6, "", List.of()));
+        }, TextMatch::shifted);
+        var second = scope.check("Other.\n\nThe ID.", Metrics.NONE, sentence -> {
+            checked.add(sentence);
+            return List.of(new TextMatch(0, 5, "", List.of()));
+        }, TextMatch::shifted);
+
+        assertThat(checked, contains("The ID.", "The name.", "Other."));
+        assertThat(first.stream().map(TextMatch::fromPos).toList(), contains(4, 12));
+        assertThat(second.stream().map(TextMatch::fromPos).toList(), contains(0, 12));
+        assertThat(cache.stats().hits(), equalTo(1L));
+        assertThat(cache.stats().misses(), equalTo(3L));
+    }
+
+    @Test
+    void separatesScopes() {
+        var cache = new SentenceCache(10);
+        List<String> checked = new ArrayList<>();
+
+        SentenceCache.scope(cache, "a").check("The ID.", Metrics.NONE, sentence -> {
+            checked.add(sentence);
+            return List.<TextMatch>of();
+        }, TextMatch::shifted);
+        SentenceCache.scope(cache, "b").check("The ID.", Metrics.NONE, sentence -> {
+            checked.add(sentence);
+            return List.<TextMatch>of();
+        }, TextMatch::shifted);
+
+        assertThat(checked, contains("The ID.", "The ID."));
+    }
+
+    @Test
+    void sentenceModeHasItsOwnResults(@TempDir Path dir) {
+        var model = Model.assembler()
+                .discoverModels(SentenceCacheTest.class.getClassLoader())
+                .addUnparsedModel("test.smithy", """
+                        $version: "2"
+                        namespace com.spellcheck.test
+
+                        /// Widgets are listed. Widgets are sorted. Widgets are paged.
+                        structure Widget {}
+                        """)
+                .assemble()
+                .unwrap();
+        var docstring = TextIndex.of(model).getTextInstances().stream()
+                .filter(text -> text.getLocationType() == TextInstance.TextLocationType.APPLIED_TRAIT)
+                .findFirst()
+                .orElseThrow();
+        var cached = Node.objectNode().withMember("cacheDirectory", dir.toString());
+        var bySentence = ProofreadValidator.create(cached.withMember("sentenceCacheSize", 100));
+        // Stands in for a result that misses matches spanning sentences.
+        var sentenceResult = TextChunks.Result.complete(
+                List.of(new TextMatch(0, 7, "Only found sentence by sentence", List.of())),
+                docstring.getText().length());
+        bySentence.cache().put(docstring, sentenceResult);
+        bySentence.cache().flush();
+
+        var whole = ProofreadValidator.create(cached);
+
+        assertThat(whole.fingerprint(), not(equalTo(bySentence.fingerprint())));
+        assertThat(whole.cache().get(docstring), nullValue());
+        assertThat(whole.validate(model), equalTo(ProofreadValidator.create(Node.objectNode()).validate(model)));
+        assertThat(bySentence.validate(model).stream().map(ValidationEvent::getMessage).toList(),
+                contains("Only found sentence by sentence"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedSentences() {
+        var cache = new SentenceCache(2);
+        var scope = SentenceCache.scope(cache, "test");
+
+        scope.check("One. Two. One. Three.", Metrics.NONE, sentence -> List.<TextMatch>of(), TextMatch::shifted);
+
+        var stats = cache.stats();
+        assertThat(stats.entries(), equalTo(2));
+        assertThat(stats.evictions(), equalTo(1L));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SuggestionsTest {
+    private static final String TEXT = "ThingSpelingStuff";
+
+    @Test
+    void skipsSuggestionsWithoutLimit() {
+        var matches = check(new Suggestions(0, 0, Duration.ZERO));
+
+        assertThat(matches, hasSize(1));
+        assertThat(matches.get(0).replacements(), empty());
+    }
+
+    @Test
+    void generatesSuggestionsWithinEditDistance() {
+        var matches = check(new Suggestions(50, 1, Duration.ZERO));
+
+        assertThat(matches.get(0).replacements(), hasItem("Spelling"));
+        for (var replacement : matches.get(0).replacements()) {
+            assertThat(Math.abs(replacement.length() - "Speling".length()), lessThanOrEqualTo(1));
+        }
+    }
+
+    @Test
+    void stopsAtLimit() {
+        var matches = check(new Suggestions(2, 2, Duration.ZERO));
+
+        assertThat(matches.get(0).replacements(), hasSize(2));
+    }
+
+    @Test
+    void capsEditDistance() {
+        var suggestions = new Suggestions(4, 5, Duration.ZERO);
+
+        assertThat(suggestions.maxEditDistance(), equalTo(Suggestions.MAX_EDIT_DISTANCE));
+    }
+
+    @Test
+    void reusesSuggestionsForRepeatedWords() {
+        var suggestions = new Suggestions(4, 0, Duration.ZERO);
+        var first = check(suggestions).get(0).replacements();
+        var second = check(suggestions).get(0).replacements();
+
+        assertThat(second, sameInstance(first));
+        assertThat(first.isEmpty(), equalTo(false));
+    }
+
+    private static List<TextMatch> check(Suggestions suggestions) {
+        try (var lease = LanguageToolPool.shared().acquire(ToolSpec.spelling("en", List.of()))) {
+            return LanguageCheckingUtils.getTextMatches(lease.tool(), TEXT, suggestions);
+        }
+    }
+}
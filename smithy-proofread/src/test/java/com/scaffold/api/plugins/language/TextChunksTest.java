@@ -0,0 +1,77 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class TextChunksTest {
+
+    @Test
+    void doesNotSplitShortTexts() {
+        assertThat(TextChunks.split("One. Two.", 100), equalTo(new int[] {9}));
+        assertThat(TextChunks.split("One. Two.", 0), equalTo(new int[] {9}));
+    }
+
+    @Test
+    void prefersSentenceBoundaries() {
+        var text = "One two. Three four five six.";
+
+        assertThat(TextChunks.split(text, 22), equalTo(new int[] {8, 29}));
+    }
+
+    @Test
+    void fallsBackToWordBoundaries() {
+        var text = "one two three four five six";
+
+        assertThat(TextChunks.split(text, 10), equalTo(new int[] {7, 13, 23, 27}));
+    }
+
+    @Test
+    void neverSplitsInsideMarkup() {
+        var text = "Intro text.\n```\nsome code. more code. even more code.\n```\nOutro.";
+
+        assertThat(TextChunks.split(text, 16), equalTo(new int[] {11, text.length()}));
+    }
+
+    @Test
+    void checksChunksWithOffsetsIntoText() {
+        var text = "One two. Three four five six.";
+        List<String> chunks = new ArrayList<>();
+
+        var result = TextChunks.check(text, 22, Long.MAX_VALUE, (chunk, offset) -> {
+            chunks.add(chunk);
+            return List.of(offset);
+        });
+
+        assertThat(chunks, contains("One two.", " Three four five six."));
+        assertThat(result.matches(), contains(0, 8));
+        assertThat(result.complete(), is(true));
+    }
+
+    @Test
+    void stopsAtDeadline() {
+        var text = "One two. Three four five six.";
+        var clock = new AtomicLong();
+        List<String> chunks = new ArrayList<>();
+
+        var result = TextChunks.check(text, 22, 50, clock::get, (chunk, offset) -> {
+            chunks.add(chunk);
+            clock.addAndGet(50);
+            return List.of(offset);
+        });
+
+        assertThat(chunks, contains("One two."));
+        assertThat(result.checkedChars(), equalTo(8));
+        assertThat(result.complete(), is(false));
+    }
+}
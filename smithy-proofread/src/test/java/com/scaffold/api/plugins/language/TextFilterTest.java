@@ -0,0 +1,52 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TextFilterTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "https://example.com/docs?page=2 | URL",
+            "  s3://bucket/key  | URL",
+            "arn:aws:iam::123456789012:role/MyRole | ARN",
+            "arn:aws:s3:::bucket | ARN",
+            "123e4567-e89b-12d3-a456-426614174000 | UUID",
+            "2024-01-31 | TIMESTAMP",
+            "2024-01-31T10:00:00.123+02:00 | TIMESTAMP",
+            "SGVsbG8gV29ybGQhIFRoaXMgaXM= | BASE64",
+            "VGhpcyBpcyBhIHN0cmluZzE2 | BASE64",
+            "'{\"key\": \"value\"}' | JSON",
+            "'[\"a\", \"b\"]' | JSON"
+    })
+    void classifiesNonProse(String text, TextFilter.Reason expected) {
+        assertThat(TextFilter.classify(text), equalTo(expected));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "The maximum number of results.",
+            "See https://example.com for details.",
+            "Use {braces} here",
+            "[link]",
+            "ThisIsAnIdentifier",
+            "MyIdentifierNameXyz1",
+            "Ec2InstanceId2024Abc",
+            "my_long_identifier_name_here",
+            "mailto:someone@example.com",
+            "1.2.3",
+            ""
+    })
+    void keepsProseAndIdentifiers(String text) {
+        assertThat(TextFilter.classify(text), nullValue());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WordVerdictsTest {
+    // Identifiers covering digits, acronyms, ignored words and patterns, compiled dictionary words, common
+    // misspellings, including some that LanguageTool prohibits, and identifiers mixing known and unknown words.
+    private static final List<String> IDENTIFIERS = List.of(
+            "Widget",
+            "Widgt",
+            "S3Bucket",
+            "S3Buckt",
+            "Ec2Instance",
+            "ListV2Objects",
+            "IPv4Address",
+            "OAuth2Token",
+            "Base64Encoded",
+            "utf8",
+            "123",
+            "HTTPRequest",
+            "XMLHttpRequest",
+            "AWSCredentials",
+            "IAMRole",
+            "UUID",
+            "ARN",
+            "FluxService",
+            "FluxServce",
+            "kafka_topic",
+            "AwsWidgt",
+            "RoleArn",
+            "RoleArnn",
+            "DynamoDBTable",
+            "DynamodbTable",
+            "KinesisStream",
+            "DeploysCount",
+            "DeployingCount",
+            "Teh",
+            "Recieve",
+            "Seperate",
+            "Occured",
+            "Accomodate",
+            "Untill",
+            "Wierd",
+            "Ukranian",
+            "Phillipines",
+            "snake_case_name",
+            "kebab-case-name",
+            "Contains a speling error");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void allKnownOnlyWhenFullCheckFindsNoTypos() throws IOException {
+        var input = Files.writeString(dir.resolve("words.txt"), """
+                deploy deploys deployed
+                DynamoDB
+                Kinesis
+                """);
+        var output = dir.resolve("words.dict");
+        DictionaryCompiler.compile(List.of(input), output);
+        var spec = ToolSpec.spelling("en",
+                List.of("Flux", "kafka"),
+                IgnorePatterns.compile(List.of("Aws*", "*Arn")),
+                List.of(ToolSpec.DictionaryFile.of(CompiledDictionary.open(output))));
+        var verdicts = new WordVerdicts(100);
+
+        List<String> known = new ArrayList<>();
+        List<String> wrong = new ArrayList<>();
+        try (var lease = LanguageToolPool.shared().acquire(spec)) {
+            for (var identifier : IDENTIFIERS) {
+                if (verdicts.allKnown(lease.tool(), identifier)) {
+                    known.add(identifier);
+                    if (!LanguageCheckingUtils.getMatches(lease.tool(), identifier).isEmpty()) {
+                        wrong.add(identifier);
+                    }
+                }
+            }
+            // Verdicts are memoized, so a second pass must agree with the first.
+            for (var identifier : IDENTIFIERS) {
+                assertThat(identifier, verdicts.allKnown(lease.tool(), identifier),
+                        equalTo(known.contains(identifier)));
+            }
+        }
+
+        assertThat(wrong, empty());
+        // Plain and ignored words take the fast path, so the comparison is not vacuous.
+        assertThat(known, hasItem("Widget"));
+        assertThat(known, hasItem("FluxService"));
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright Scaffold Software LLC. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.scaffold.api.plugins.language;
+
+import java.util.List;
+import java.util.Random;
+import software.amazon.smithy.model.Model;
+import software.amazon.smithy.utils.SmithyBuilder;
+
+/**
+ * Generates Smithy models with realistic names and docstrings for performance testing.
+ * <p>
+ * Models contain {@code shapeCount} structures, each with a docstring and three
+ * documented members. Generation is deterministic for a given seed.
+ */
+public final class SyntheticModel {
+    private static final String NAMESPACE = "com.example.synthetic";
+    private static final List<String> NOUNS = List.of(
+            "Account",
+            "Bucket",
+            "Certificate",
+            "Cluster",
+            "Database",
+            "Endpoint",
+            "Function",
+            "Gateway",
+            "Identity",
+            "Instance",
+            "Key",
+            "Listener",
+            "Network",
+            "Policy",
+            "Queue",
+            "Resource",
+            "Role",
+            "Snapshot",
+            "Subnet",
+            "Table",
+            "Topic",
+            "Volume",
+            "Widget");
+    private static final List<String> VERBS = List.of(
+            "Create",
+            "Delete",
+            "Describe",
+            "Get",
+            "List",
+            "Put",
+            "Start",
+            "Stop",
+            "Update");
+    private static final List<String> SUFFIXES = List.of("Request", "Response", "Summary", "Details", "Config");
+    private static final List<String> MEMBERS = List.of(
+            "name",
+            "identifier",
+            "maxResults",
+            "nextToken",
+            "createdAt",
+            "status",
+            "description",
+            "tags",
+            "ownerArn");
+    private static final List<String> WORDS = List.of(
+            "the",
+            "unique",
+            "identifier",
+            "of",
+            "resource",
+            "maximum",
+            "number",
+            "results",
+            "to",
+            "return",
+            "in",
+            "a",
+            "single",
+            "call",
+            "this",
+            "operation",
+            "creates",
+            "new",
+            "request",
+            "is",
+            "used",
+            "when",
+            "status",
+            "changes",
+            "and",
+            "value",
+            "must",
+            "be",
+            "provided",
+            "for",
+            "each",
+            "account",
+            "region",
+            "time",
+            "which",
+            "was",
+            "last",
+            "updated");
+    private static final List<String> TAGS = List.of("p", "code", "i", "b", "li", "a");
+
+    private final int shapeCount;
+    private final int docstringWords;
+    private final double htmlDensity;
+    private final double typoRate;
+    private final long seed;
+
+    private SyntheticModel(Builder builder) {
+        this.shapeCount = builder.shapeCount;
+        this.docstringWords = builder.docstringWords;
+        this.htmlDensity = builder.htmlDensity;
+        this.typoRate = builder.typoRate;
+        this.seed = builder.seed;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return model source in the Smithy IDL.
+     */
+    public String toIdl() {
+        var random = new Random(seed);
+        var builder = new StringBuilder(shapeCount * (docstringWords * 32 + 256));
+        builder.append("$version: \"2\"\n\nnamespace ").append(NAMESPACE).append("\n\n");
+        for (int i = 0; i < shapeCount; i++) {
+            appendDocstring(builder, random, "");
+            builder.append("structure ").append(shapeName(random, i)).append(" {\n");
+            for (int m = 0; m < 3; m++) {
+                appendDocstring(builder, random, "    ");
+                builder.append("    ")
+                        .append(maybeTypo(random, MEMBERS.get((i + m) % MEMBERS.size())))
+                        .append(m)
+                        .append(": String\n");
+            }
+            builder.append("}\n\n");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return assembled model.
+     */
+    public Model assemble() {
+        return Model.assembler()
+                .addUnparsedModel("synthetic.smithy", toIdl())
+                .assemble()
+                .unwrap();
+    }
+
+    private String shapeName(Random random, int index) {
+        var verb = VERBS.get(random.nextInt(VERBS.size()));
+        var noun = maybeTypo(random, NOUNS.get(random.nextInt(NOUNS.size())));
+        var suffix = SUFFIXES.get(random.nextInt(SUFFIXES.size()));
+        // Shape names must be unique, so the index is appended.
+        return verb + noun + suffix + index;
+    }
+
+    private void appendDocstring(StringBuilder builder, Random random, String indent) {
+        builder.append(indent).append("/// ");
+        int lineLength = 0;
+        for (int w = 0; w < docstringWords; w++) {
+            var word = maybeTypo(random, WORDS.get(random.nextInt(WORDS.size())));
+            if (w == 0) {
+                word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+            }
+            if (random.nextDouble() < htmlDensity) {
+                var tag = TAGS.get(random.nextInt(TAGS.size()));
+                word = "<" + tag + ">" + word + "</" + tag + ">";
+            }
+            if (lineLength > 80) {
+                builder.append('\n').append(indent).append("/// ");
+                lineLength = 0;
+            } else if (w > 0) {
+                builder.append(' ');
+            }
+            builder.append(word);
+            lineLength += word.length() + 1;
+        }
+        builder.append(".\n");
+    }
+
+    private String maybeTypo(Random random, String word) {
+        if (word.length() < 3 || random.nextDouble() >= typoRate) {
+            return word;
+        }
+        // Swap two adjacent letters after the first one.
+        int i = 1 + random.nextInt(word.length() - 2);
+        var chars = word.toCharArray();
+        var c = chars[i];
+        chars[i] = chars[i + 1];
+        chars[i + 1] = c;
+        return new String(chars);
+    }
+
+    public static final class Builder implements SmithyBuilder<SyntheticModel> {
+        private int shapeCount = 100;
+        private int docstringWords = 20;
+        private double htmlDensity = 0.05;
+        private double typoRate = 0.01;
+        private long seed = 42;
+
+        private Builder() {}
+
+        @Override
+        public SyntheticModel build() {
+            return new SyntheticModel(this);
+        }
+
+        /**
+         * @param shapeCount number of structures to generate.
+         * @return this builder.
+         */
+        public Builder shapeCount(int shapeCount) {
+            this.shapeCount = shapeCount;
+            return this;
+        }
+
+        /**
+         * @param docstringWords number of words in each docstring.
+         * @return this builder.
+         */
+        public Builder docstringWords(int docstringWords) {
+            this.docstringWords = docstringWords;
+            return this;
+        }
+
+        /**
+         * @param htmlDensity probability that a docstring word is wrapped in an HTML tag.
+         * @return this builder.
+         */
+        public Builder htmlDensity(double htmlDensity) {
+            this.htmlDensity = htmlDensity;
+            return this;
+        }
+
+        /**
+         * @param typoRate probability that a word or name contains a typo.
+         * @return this builder.
+         */
+        public Builder typoRate(double typoRate) {
+            this.typoRate = typoRate;
+            return this;
+        }
+
+        /**
+         * @param seed seed for the random generator.
+         * @return this builder.
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+    }
+}